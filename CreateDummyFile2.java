@@ -5,7 +5,7 @@
   Java class name: CreateDummyFile2
   Copyright (c) 2024 by Keith Fenske.  Apache License or GNU GPL.
 
-  This is a Java 1.4 console application to create a file with a given size,
+  This is a Java 10 console application to create a file with a given size,
   and to fill the file with a repeating pattern or pseudo-random data.  Such a
   "dummy" file can replace the space occupied by a regular file that is not
   available.
@@ -15,6 +15,13 @@
   grouping.  Suffixes are recognized for kilobytes, megabytes, etc.  The second
   parameter is the output file name.  You may need to quote the name.
 
+  If the file name is a hyphen (-), data is written to standard output, for
+  piping into another program such as "nc" or a compressor, and messages go to
+  standard error instead.  Standard output is written directly through its
+  file descriptor, with the same big buffers as a file, not through Java's
+  System.out print stream.  Only the normal output method can be used, with or
+  without -threads#, checksums (but not -sum), statistics, and rate limits.
+
   Options select which data values to write for the bytes:
 
     -d# = one or more decimal bytes from 000 to 255
@@ -22,6 +29,7 @@
     -o = write all ones, 0xFF bytes
     -p# = text pattern to repeat, in local character set
     -r = write pseudo-random data (default)
+    -text# = lines of text from a template with fields, such as {n},{t},{r:1-9}
     -z = write all zeros, 0x00 bytes
 
   These options are mutually exclusive; only one option should appear.  Options
@@ -33,6 +41,296 @@
 
     java  CreateDummyFile2  -z  32k  x.dat
 
+  Generating pseudo-random data is slower than most disk drives.  The following
+  option creates worker threads to fill a ring of buffers while the main thread
+  writes them in order, so that generation and output overlap:
+
+    -threads# = number of threads generating random data (default 0 = none)
+
+  A good choice is the number of processor cores minus one.  This option has no
+  effect for a repeating pattern, because those bytes are only generated once.
+
+  Large disk arrays and parallel file systems are faster when more than one
+  write request is waiting.  The following option splits the file into equal
+  regions, and each region is written by its own thread at its own position:
+
+    -regions# = number of regions written in parallel (default 0 = none)
+
+  Repeating patterns are identical to writing the file in order.  Each region
+  generates its own pseudo-random data, so -threads# is not used with regions.
+
+  Several disks can be filled or loaded at once by one process, instead of
+  running a separate Java program for each disk:
+
+    -stripe# = split the file size across targets, in stripes of # bytes
+    -targets = write all file names after the file size, one thread for each
+
+  With -targets, every file name after the file size is an output file (a
+  "target"), usually on a different disk or mount point, and each target is
+  written by its own thread with its own buffers.  Each target gets a complete
+  copy of the file, unless -stripe# is given.  Then the file size is the total
+  for all targets, and stripes of the file go to the targets in turn: the first
+  stripe to the first target, the second stripe to the second target, and so
+  on.  Speeds are reported for each target and for all targets together.  For
+  complete copies, -direct and -threads# apply to each target separately (with
+  worker threads for each).  An example to fill three disks with 1 TB each is:
+
+    java  CreateDummyFile2  -targets  -stripe1m  3t  /d1/x  /d2/x  /d3/x
+
+  Pseudo-random data comes from a "counter-based" generator, where the bytes at
+  any offset in the file are calculated directly from a seed and the offset.
+  The same seed always produces the same file, no matter how many threads or
+  regions are used, and any part of the file can be generated again later:
+
+    -seed# = decimal seed for pseudo-random data (default is a random seed)
+
+  Text files that look like logs or CSV data can be made from a template, one
+  line at a time, much faster than by a script:
+
+    -text# = lines of text from a template with fields, such as {n},{t},{r:1-9}
+
+  Fields in the template are replaced on each line: {n} is a counter from 1,
+  or {n:#} from #; {t} is a timestamp such as 2024-01-01T00:00:00.000Z, going
+  up by one second per line, or {t:#} by # milliseconds; {r:#-#} is a random
+  number in a range; and {w:red,green,blue} picks a word at random, or
+  {w:@words.txt} from a file with one word per line.  Write {{ and }} for
+  literal braces.  Other text is copied as with -p#, and each line ends with a
+  newline (LF).  Random fields use the -seed#.  The file has exactly the size
+  requested, even if the last line is cut short.  Timestamps stop at the year
+  9999, so a file that could have more lines than that is refused.  Lines are
+  made in order, so -text# can't be combined with -regions#, -targets, or
+  -threads#.  An example of a CSV file with 1 GB is:
+
+    java  CreateDummyFile2  "-text{n},{t:250},{w:GET,PUT,POST},{r:100-999}"
+      1g  x.csv
+
+  Storage arrays that compress and remove duplicate blocks ("dedupe") are too
+  fast for pseudo-random data to be a fair test, and too slow for zeros.  The
+  following options make pseudo-random data with a target for each:
+
+    -block# = block size for -compress# and -dedupe# (default 4k)
+    -compress# = target compression ratio, such as 2 or 2.5 or 3:1
+    -dedupe# = target dedupe ratio, such as 3 or 3:1
+
+  The file is divided into blocks.  Each new block has a short unique header,
+  then enough random bytes (copied from an 8 MB cache) for the compression
+  ratio, and the rest of the block is one byte repeated.  Other blocks repeat a
+  block written earlier in the file, chosen at random, often enough for the
+  dedupe ratio.  Copying blocks is much faster than generating every byte.  The
+  achieved ratios are reported at the end: dedupe is exact, and compression is
+  measured by compressing a sample of blocks with Deflate.  These options use
+  the -seed# like other pseudo-random data, and work with -threads#, -regions#,
+  -verify, and -resume.
+
+  A file full of zeros doesn't need to be written one byte at a time, if all
+  you want is a placeholder.  Two variations of the -z option are faster:
+
+    -zs = sparse file, set the size without writing any data
+    -zt = touch each file system block with one zero byte, to allocate space
+
+  On Linux and macOS, most file systems create a "sparse" file with -zs, which
+  has a size but takes no space on disk.  Windows (NTFS) allocates space for
+  the file without writing it.  The -zt option forces space to be allocated on
+  all systems, with one small write per block instead of writing every byte.
+  Java has no standard call for preallocating space (fallocate() on Linux).
+
+  Repeating patterns can also be written through memory-mapped windows of the
+  file, where the pattern is copied directly into the pages of the file, with
+  no system call for each buffer.  Whether this is faster depends on the
+  system, so there is an option to write the file both ways and compare:
+
+    -compare = write file twice, with buffered and mapped output, and compare
+    -map = write file through memory-mapped windows of 1 GB each
+
+  Java has no way to release ("unmap") a window other than garbage collection,
+  so the program's virtual size may grow while writing large files.
+
+  Writing a large file pushes other data out of the system's file cache, which
+  may slow down other programs.  Linux can write directly from our buffer to
+  the disk, bypassing the cache, when the file system allows it:
+
+    -direct = use direct I/O (Linux O_DIRECT) to bypass the file cache
+
+  Direct writes must be whole file system blocks, so the last block is padded
+  and the file is then truncated to the correct size.
+
+  Only one of -compare, -direct, -map, -regions#, -zs, or -zt can be given.
+  The -threads# option can be used with normal output or -direct.
+
+  Checksums and message digests can be calculated from each buffer as it is
+  written, instead of reading the whole file again afterwards:
+
+    -chunk# = digest each chunk of this size, such as 1m, for a hash tree
+    -crc = calculate CRC32C checksum for the whole file
+    -digest# = message digest for the whole file, such as -digestSHA-256
+    -sum = save checksums in a file with ".sum" added to the output file name
+
+  Chunk digests use the -digest# algorithm, or SHA-256 if none is given.  With
+  -chunk#, there is one digest for each chunk, and a "root" digest calculated
+  from all chunk digests in order.  Chunk digests are saved in the ".sum" file
+  (implied), so parts of a large file can be checked without reading it all.
+  Checksums are only for methods that write the file in order: not -compare,
+  -regions#, -zs, or -zt.
+
+  An existing file can be read and checked against the same options used to
+  create it, to confirm that the disk returned exactly what was written:
+
+    -verify = read and check an existing file, instead of creating a file
+
+  Give the same data option, size, and file name as when the file was created.
+  Pseudo-random data can only be checked if the -seed# option was used.  With
+  -regions#, regions of the file are read and checked in parallel.  The result
+  is the number of bytes that are different, and the offset of the first
+  difference.  An example to check the 512-byte file from above is:
+
+    java  CreateDummyFile2  -verify  -seed9  512  x.dat
+
+  if that file had been created with the -seed9 option.
+
+  Long runs can report their progress, and time each write to the file, to
+  show when the disk slows down or stalls:
+
+    -json# = save final statistics in a JSON file with this name
+    -latency = show a histogram of the time taken by each write
+    -progress# = show progress every # seconds (default 10)
+
+  Progress lines have the number of bytes written, the speed over the last 10
+  seconds, the estimated time remaining, and the slowest write since the last
+  progress line.  A "write" is one buffer of up to 256 KB given to the system,
+  which may return before the data reaches the disk.  The JSON file has the
+  totals, the slowest and average write times, percentiles, and a histogram.
+  These options are for methods that write buffers: not -compare, -zs, or -zt.
+
+  Files are normally closed without waiting for the data to reach the disk,
+  so the time reported is when the system accepted the data, not when the data
+  was safe.  Sync options force the data to disk with FileChannel.force():
+
+    -sync = force data and metadata to disk before closing the file
+    -sync# = also force every # bytes, such as 1g, to limit unwritten data
+    -syncdata = force only the data (and the file size), like fdatasync()
+    -syncdata# = also force only the data every # bytes
+
+  The time spent in sync calls is included in the total time, and reported
+  separately, along with the speed without sync time when only one thread
+  calls sync.  (With several threads, such as -regions# and -sync#, the time is
+  added over all threads.)  Syncing every so often keeps the system's cache
+  from filling with unwritten data on large files.  With -map, windows are
+  forced with MappedByteBuffer.force().  These options can't be combined with
+  -compare or -verify.
+
+  Instead of writing as fast as possible, the file can be written at a steady
+  rate, to simulate background load on a disk or network file system:
+
+    -burst# = bytes that may be written at once after a pause, such as 16m
+    -rate# = bytes per second, such as 200m or 200m/s
+    -writesize# = bytes per write, such as 64k, or 4k-1m for random sizes
+
+  The rate is kept by a "token bucket": the program sleeps until enough time
+  has passed for the next write, and never spins while waiting.  A slow write
+  can be made up later by the burst size, which defaults to 1/10 second of data
+  or two writes, whichever is larger.  The default write size is 256 KB, and
+  the largest is 64 MB.  A range of write sizes is chosen uniformly at random.
+  At the end, the actual rate is compared to the target, with how often the
+  program fell behind schedule and how many writes took longer than their share
+  of time.  These options are for normal output, without -threads#.
+
+  A large file that was interrupted (by Control-C, or the program being killed)
+  can be finished without starting again from zero:
+
+    -resume = continue writing an existing file from where it stopped
+
+  Give the same options, size, and file name as the first time.  The existing
+  file is cut back to a multiple of 256 KB, in case the last write was only
+  partly done, and writing continues from there.  The result is identical to a
+  file written without stopping.  Pseudo-random data can only be resumed if the
+  -seed# option was used.  If the file doesn't exist, it is created as usual.
+  With Control-C, the program reports how many bytes were written before it
+  stops.  Resume works with the normal output method, -direct, -threads#, and
+  rate limits, but not with checksums, which need the whole file.
+
+  Many files can be created by one run of this program, from a list of files
+  in a text file (a "manifest"), which is faster than starting Java once for
+  each file:
+
+    -batch = create files listed in a manifest file, or standard input
+
+  With the -batch option, the only parameter is the name of the manifest file.
+  If no name is given, or the name is a hyphen (-), the list is read from
+  standard input.  Each line in the manifest has the same syntax as the command
+  line, with optional data options (-d#, -h#, -o, -p#, -r, -seed#, -z) before
+  the file size and file name.  A -p# pattern with spaces goes in double
+  quotes, such as "-pHello world" or -p"Hello world", and two double quotes
+  inside quotes are one quote character.  The file name is the rest of the
+  line, and may contain spaces.  Blank lines and lines starting with "#" are
+  ignored.  Data options on the command line are the default for lines without
+  their own.  Lines without -seed# get a different seed for each line; if
+  -seed# is given on the command line, line <n> gets that seed plus <n>.  Files
+  are created in parallel by -threads# threads (default is one per processor).
+  An error for one file doesn't stop the others.
+
+  Small-file and metadata tests need trees with thousands or millions of files,
+  which would be far too slow with one run of this program for each file.  The
+  following options create a tree of directories and files in one run:
+
+    -depth# = levels of directories below the top (default 2)
+    -fanout# = directories in each directory (default 10)
+    -files# = total number of files, such as 1000000 or 1m (default 1000)
+    -tree = create a tree of directories and files, named by the file name
+
+  With -tree, the file name is the top directory, and the file size is the
+  size of each file, or a distribution of sizes:
+
+    4k = every file has the same size
+    1k-64k = sizes chosen uniformly from a range
+    16k~1.5 = log-normal sizes with a median and standard deviation of log(size)
+    @sizes.txt = histogram file, with one size or range and a weight per line
+
+  A histogram line such as "4k-8k 30" gives that range a weight of 30, compared
+  to the weights on other lines.  Files are only in the bottom directories, and
+  are spread evenly across them.  Directories are created first, then files
+  are created in parallel by -threads# threads (default is one per processor).
+  Each file of pseudo-random data has its own seed, mixed from the seed and its
+  file number, and sizes also come from the seed, so the same options with
+  -seed# give the same tree.  The totals include files per second, and the time
+  that threads spent creating files (metadata) separately from the time spent
+  writing and closing them (data).  The -sync and -syncdata options force each
+  file to disk before it's closed.  An example with 100 directories and one
+  million files is:
+
+    java  CreateDummyFile2  -tree  -files1000000  1k-64k  testdir
+
+  Old data files can be overwritten before a disk is retired or reused.  The
+  normal output method truncates the file, and the system may put the new data
+  on different blocks, leaving the old data on the disk.  These options write
+  over an existing file in place, at the same size:
+
+    -overwrite = write over an existing file, without truncating it
+    -passes# = data options for each pass, such as z/o/r (default one pass)
+
+  With -overwrite, the only parameter is the name of an existing file, and the
+  file size is taken from the file.  Each pass writes the whole file with one
+  data option, in parallel regions (-regions#, default is one per processor),
+  and is forced to disk before the next pass starts, so that every pass reaches
+  the disk and isn't merged in the system's cache.  Passes are given as data
+  options without their hyphens, separated by slashes (/): d#, h#, o, p#, r,
+  r#, or z.  Without -passes#, there is one pass with the usual data option.
+  Pass <n> of pseudo-random data gets the seed plus <n> minus one, so the first
+  pass can be checked with -verify and the same -seed#.  The speed is reported
+  for each pass.  An example with three passes (zeros, ones, random) is:
+
+    java  CreateDummyFile2  -overwrite  -passesz/o/r  old.dat
+
+  Other Java programs can use this class as a library, to create files or
+  streams without starting a new process.  A CreateDummyFile2 object has a size
+  and pseudo-random data (from a seed), a repeating pattern, or a random
+  selection.  The object can write to a Path, an OutputStream, or a
+  WritableByteChannel, or produce the bytes on demand as a ReadableByteChannel
+  or InputStream, without the file ever existing.  The same seed gives the same
+  bytes as the -seed# option.  The parseDecBytes(), parseFileSize(), and
+  parseHexBytes() methods are also public.  This class is in the default
+  (unnamed) package, so callers must also be in the default package, or use
+  reflection.
+
   There is no graphical interface (GUI) for this program; it must be run from a
   command prompt, command shell, or terminal window.
 
@@ -49,8 +347,12 @@
 */
 
 import java.io.*;                 // standard I/O
+import java.nio.*;                // byte buffers
+import java.nio.channels.*;       // file channels
+import java.nio.file.*;           // file paths and file stores
+import java.security.*;           // message digests
 import java.text.*;               // number formatting
-import java.util.regex.*;         // regular expressions
+import java.util.*;               // arrays and other utilities
 
 public class CreateDummyFile2
 {
@@ -59,18 +361,40 @@ public class CreateDummyFile2
   static final int BUFFER_SIZE = 0x40000;
                                   // output buffer size in bytes (256 KB)
   static final int BYTE_MASK = 0x000000FF; // gets low-order byte from integer
+  static final int DEFAULT_BLOCK = 0x1000; // file system block size (4 KB),
+                                  // ... if file store doesn't say otherwise
+  static final String CHUNK_DIGEST = "SHA-256";
+                                  // default algorithm for chunk digests
   static final String COPYRIGHT_NOTICE =
     "Copyright (c) 2024 by Keith Fenske.  Apache License or GNU GPL.";
   static final int EXIT_FAILURE = -1; // incorrect request or errors found
   static final int EXIT_SUCCESS = 1; // request completed successfully
   static final int EXIT_UNKNOWN = 0; // don't know or nothing really done
+  static final long MAP_WINDOW = 0x40000000L;
+                                  // bytes per memory-mapped window (1 GB)
+  static final int MAX_THREADS = 256; // maximum number of generator threads
   static final String PROGRAM_TITLE =
     "Create File With Random Contents Given Size - by: Keith Fenske";
 
   /* class variables */
 
+  static CreateDummyFile2Digest checksums; // checksums while writing, or null
   static NumberFormat formatComma; // formats with commas (digit grouping)
+  static NumberFormat formatPointOne; // formats with one decimal digit
   static boolean mswinFlag;       // true if running on Microsoft Windows
+  static long resumeOffset;       // bytes kept from an interrupted run
+  static CreateDummyFile2Stats stats; // progress and write times, or null
+  static long syncCount;          // number of sync calls made
+  static boolean syncFlag;        // true if we force data to disk
+  static long syncInterval;       // bytes between sync calls, or zero
+  static boolean syncMetadata;    // true if sync includes metadata
+  static long syncNanos;          // total time in sync calls
+  static volatile long writePosition; // file offset after last write, or -1
+
+  /* instance variables, when used as a library */
+
+  CreateDummyFile2Data data;      // data bytes to be generated
+  long size;                      // total number of bytes to be generated
 
 /*
   main() method
@@ -81,27 +405,122 @@ public class CreateDummyFile2
   {
     byte[] buffer;                // byte buffer for writing output file
     long bytesDone;               // number of bytes written so far
+    long chunkSize;               // bytes per chunk digest, or zero
+    boolean compareFlag;          // true if we compare buffered and mapped
+    double compressRatio;         // target compression ratio, or 1.0
+    boolean crcFlag;              // true if we calculate CRC32C checksum
+    boolean batchFlag;            // true if we create files from manifest
+    long burstSize;               // bytes allowed at once by rate, or zero
+    CreateDummyFile2Data data;    // data bytes to be written
     byte[] dataBytes;             // non-empty byte sequence, if not random
-    int dataLength;               // number of bytes in <dataBytes>
+    double dedupeRatio;           // target dedupe ratio, or 1.0
+    String digestName;            // message digest algorithm, or null
+    boolean directFlag;           // true if we bypass the file cache
+    long elapsed;                 // elapsed time in nanoseconds
     String fileName;              // name of file to be created
     long fileSize;                // total number of bytes to be written
-    int i, k;                     // index variables
-    FileOutputStream out;         // byte output stream for writing file
+    ArrayList<String> givenOptions; // options given, other than data options
+    int i, j;                     // index variables
+    String jsonName;              // name of JSON statistics file, or null
+    boolean latencyFlag;          // true if we show histogram of writes
+    boolean mapFlag;              // true if we write with memory mapping
+    boolean overwriteFlag;        // true if we overwrite an existing file
+    ArrayList<CreateDummyFile2Data> passes; // data for -overwrite passes
+    String passList;              // data options for passes, or null
+    String[] passWords;           // data option for each pass
+    CreateDummyFile2Pacer pacer;  // rate and write sizes, or null if none
+    CreateDummyFile2Pipeline pipeline; // worker threads, or null if none
+    int progressSeconds;          // seconds between progress reports, or 0
     boolean randomFlag;           // true if we write pseudo-random data
-    java.util.Random randomGen;   // fancy pseudo-random number generator
-    int thisSize;                 // number of bytes from current buffer
+    long randomSeed;              // user's seed for pseudo-random data
+    long rateLimit;               // bytes per second, or zero for no limit
+    long reduceBlock;             // block size for compression and dedupe
+    int regionCount;              // number of regions written in parallel
+    RandomAccessFile resumeFile;  // existing file for -resume
+    boolean resumeFlag;           // true if we continue an existing file
+    boolean seedFlag;             // true if user gave us a seed
+    boolean sparseFlag;           // true if we only set size of zero file
+    boolean stdoutFlag;           // true if we write to standard output
+    boolean sumFlag;              // true if we save checksums in a file
+    long startTime;               // starting time in nanoseconds
+    long stripeSize;              // bytes per stripe for -targets, or zero
+    ArrayList<String> targetNames; // output files for -targets
+    boolean targetsFlag;          // true if we write several files at once
+    CreateDummyFile2Text text;    // text generator for -text#, or null
+    String textError;             // error message for text template
+    String textTemplate;          // template for -text#, or null
+    int threadCount;              // number of random generator threads
+    CreateDummyFile2Tree tree;    // directories and files for -tree
+    boolean touchFlag;            // true if we touch each block of zero file
+    int treeDepth;                // levels of directories, or -1 for default
+    int treeFanout;               // directories in each, or -1 for default
+    long treeFiles;               // number of files, or -1 for default
+    boolean treeFlag;             // true if we create a tree of files
+    String treeError;             // error message for size distribution
+    String treeSizes;             // size distribution for files in tree
+    boolean verifyFlag;           // true if we check an existing file
     String word;                  // one parameter from command line
+    long writeMax;                // largest write size, or zero for default
+    long writeMin;                // smallest write size, or zero for default
 
     /* Initialize variables used by both console and GUI applications. */
 
+    batchFlag = false;            // by default, create only one file
+    burstSize = 0;                // by default, burst depends on rate
+    checksums = null;             // by default, no checksums
+    chunkSize = 0;                // by default, no chunk digests
+    compareFlag = false;          // by default, write file only once
+    compressRatio = 1.0;          // by default, data is not compressible
+    crcFlag = false;              // by default, no CRC32C checksum
     dataBytes = null;             // ignored when <randomFlag> is true
+    dedupeRatio = 1.0;            // by default, no duplicate blocks
+    digestName = null;            // by default, no message digest
+    directFlag = false;           // by default, use the file cache
     fileName = null;              // by default, there is no file name
     fileSize = -1;                // by default, there is no file size
     formatComma = NumberFormat.getInstance(); // current locale
     formatComma.setGroupingUsed(true); // use commas or digit groups
+    formatPointOne = NumberFormat.getInstance(); // current locale
+    formatPointOne.setGroupingUsed(true); // use commas or digit groups
+    formatPointOne.setMaximumFractionDigits(1); // force one decimal digit
+    formatPointOne.setMinimumFractionDigits(1);
+    jsonName = null;              // by default, no JSON statistics file
+    latencyFlag = false;          // by default, no histogram of writes
+    mapFlag = false;              // by default, write with FileOutputStream
     mswinFlag = System.getProperty("os.name").startsWith("Windows");
+    overwriteFlag = false;        // by default, create a new file
+    pacer = null;                 // by default, write as fast as possible
+    passList = null;              // by default, one pass with data option
+    pipeline = null;              // by default, no worker threads
+    progressSeconds = 0;          // by default, no progress reports
     randomFlag = true;            // by default, write pseudo-random data
-    randomGen = null;             // only used if <randomFlag> is true
+    randomSeed = 0;               // only used if <seedFlag> is true
+    rateLimit = 0;                // by default, write as fast as possible
+    reduceBlock = 0;              // by default, use standard block size
+    regionCount = 0;              // by default, write file in order
+    resumeFlag = false;           // by default, create a new file
+    resumeOffset = 0;             // by default, start at the beginning
+    seedFlag = false;             // by default, choose a random seed
+    sparseFlag = false;           // by default, write every byte
+    stats = null;                 // by default, no statistics
+    syncCount = syncNanos = 0;    // no sync calls made yet
+    syncFlag = false;             // by default, don't wait for the disk
+    syncInterval = 0;             // by default, only sync at the end
+    syncMetadata = true;          // by default, sync includes metadata
+    stripeSize = 0;               // by default, full copy on each target
+    sumFlag = false;              // by default, no file with checksums
+    targetNames = new ArrayList<String>(); // no file names yet
+    targetsFlag = false;          // by default, write only one file
+    textTemplate = null;          // by default, no text template
+    threadCount = 0;              // by default, main thread does everything
+    touchFlag = false;            // by default, write every byte
+    treeDepth = treeFanout = -1;  // by default, use standard tree shape
+    treeFiles = -1;               // by default, standard number of files
+    treeFlag = false;             // by default, create only one file
+    treeSizes = null;             // no file size for tree yet
+    verifyFlag = false;           // by default, create a new file
+    writePosition = -1;           // not writing yet
+    writeMax = writeMin = 0;      // by default, write our buffer size
 
     /* Check command-line parameters for options. */
 
@@ -122,452 +541,5843 @@ public class CreateDummyFile2
         System.exit(EXIT_UNKNOWN); // exit application after printing help
       }
 
-      else if (word.startsWith("-d") || (mswinFlag && word.startsWith("/d")))
+      /* Options with long names must be checked before single-letter options
+      that accept data, such as -r, which would otherwise claim "-regions". */
+
+      else if (word.equals("-batch") || (mswinFlag && word.equals("/batch")))
       {
-        /* One or more decimal values for data bytes.  Separators are optional
-        but recommended.  Otherwise, every third digit starts a new byte. */
+        batchFlag = true;         // create files listed in manifest
+      }
 
-        dataBytes = parseDecBytes(word.substring(2));
-        if ((dataBytes == null) || (dataBytes.length == 0))
+      else if (word.startsWith("-block")
+        || (mswinFlag && word.startsWith("/block")))
+      {
+        /* Block size for compression and dedupe, with the same syntax as the
+        file size. */
+
+        reduceBlock = parseFileSize(word.substring(6));
+        if ((reduceBlock < 512) || (reduceBlock > 0x100000))
         {
-          System.err.println("Decimal byte data must be from 000 to 255: "
+          System.err.println("Block size must be from 512 bytes to 1 MB: "
             + args[i]);
           showHelp();
           System.exit(EXIT_FAILURE);
         }
-        randomFlag = false;       // use given value, not pseudo-random
       }
 
-      else if (word.startsWith("-h") || (mswinFlag && word.startsWith("/h")))
+      else if (word.startsWith("-burst")
+        || (mswinFlag && word.startsWith("/burst")))
       {
-        /* One or more hexadecimal values for data bytes, and separators. */
+        /* Largest number of bytes written at once by the rate limit, with the
+        same syntax as the file size. */
 
-        dataBytes = parseHexBytes(word.substring(2));
-        if ((dataBytes == null) || (dataBytes.length == 0))
+        burstSize = parseFileSize(word.substring(6));
+        if (burstSize <= 0)
         {
-          System.err.println("Hexadecimal byte data must be from 00 to FF: "
+          System.err.println("Burst size must be one byte or more: "
             + args[i]);
           showHelp();
           System.exit(EXIT_FAILURE);
         }
-        randomFlag = false;
       }
 
-      else if (word.equals("-o") || (mswinFlag && word.equals("/o")))
+      else if (word.startsWith("-chunk")
+        || (mswinFlag && word.startsWith("/chunk")))
       {
-        /* Write all ones: 0xFF bytes. */
+        /* Size of each chunk for chunk digests, with the same syntax as the
+        file size. */
 
-        dataBytes = new byte[] {(byte) BYTE_MASK};
-        randomFlag = false;
+        chunkSize = parseFileSize(word.substring(6));
+        if (chunkSize <= 0)
+        {
+          System.err.println("Chunk size must be one byte or more: "
+            + args[i]);
+          showHelp();
+          System.exit(EXIT_FAILURE);
+        }
+        sumFlag = true;           // chunk digests must be saved in a file
       }
 
-      else if (word.startsWith("-p") || (mswinFlag && word.startsWith("/p")))
+      else if (word.equals("-compare")
+        || (mswinFlag && word.equals("/compare")))
       {
-        /* A text pattern to repeat.  Change code here to customize how the
-        user's text is converted into bytes. */
+        compareFlag = true;       // write with buffered and mapped output
+      }
 
-        dataBytes = args[i].substring(2).getBytes(); // local character set
-        if ((dataBytes == null) || (dataBytes.length == 0))
+      else if (word.startsWith("-compress")
+        || (mswinFlag && word.startsWith("/compress")))
+      {
+        /* Target compression ratio for pseudo-random data, as a decimal number
+        with an optional ":1" at the end. */
+
+        compressRatio = parseRatio(word.substring(9));
+        if ((compressRatio < 1.0) || (compressRatio > 100.0))
         {
-          System.err.println(
-            "Text pattern to repeat must have at least one byte: " + args[i]);
+          System.err.println("Compression ratio must be from 1 to 100: "
+            + args[i]);
           showHelp();
           System.exit(EXIT_FAILURE);
         }
-        randomFlag = false;
       }
 
-      else if (word.startsWith("-r") || (mswinFlag && word.startsWith("/r")))
+      else if (word.equals("-crc") || (mswinFlag && word.equals("/crc")))
       {
-        /* Write random data.  Undocumented option: if two or more hex bytes
-        are given, then randomly select from those bytes.  A devious choice:
-
-          -r30,30,30,30,30,31,31,31,31,32,32,32,33,33,33,34,34,35,35,36,36,37,37,38,39
+        crcFlag = true;           // calculate CRC32C checksum
+      }
 
-        produces US-ASCII (UTF-8) digits that look like they have meaning, but
-        don't.  This should trouble some file-recovery programs. */
+      else if (word.startsWith("-dedupe")
+        || (mswinFlag && word.startsWith("/dedupe")))
+      {
+        /* Target dedupe ratio for pseudo-random data, the number of blocks
+        written for each unique block. */
 
-        dataBytes = parseHexBytes(word.substring(2));
-        if (dataBytes == null)    // some sort of parsing error
+        dedupeRatio = parseRatio(word.substring(7));
+        if ((dedupeRatio < 1.0) || (dedupeRatio > 1000.0))
         {
-          System.err.println("Random byte data must be hex from 00 to FF: "
+          System.err.println("Dedupe ratio must be from 1 to 1000: "
             + args[i]);
           showHelp();
           System.exit(EXIT_FAILURE);
         }
-        else if (dataBytes.length == 0) // most common case: nothing given
+      }
+
+      else if (word.startsWith("-depth")
+        || (mswinFlag && word.startsWith("/depth")))
+      {
+        /* Levels of directories below the top directory of a tree. */
+
+        try                       // try to parse remainder as unsigned integer
         {
-          dataBytes = null;       // remove array data
-          randomFlag = true;
+          treeDepth = Integer.parseInt(word.substring(6));
+        }
+        catch (NumberFormatException nfe) // if not a number or bad syntax
+        {
+          treeDepth = -1;         // set result to an illegal value
+        }
+        if ((treeDepth < 0) || (treeDepth > 100))
+        {
+          System.err.println("Tree depth must be from 0 to 100: " + args[i]);
+          showHelp();
+          System.exit(EXIT_FAILURE);
         }
-        else if (dataBytes.length == 1)
-          randomFlag = false;     // not random if selecting from one item
-        else
-          randomFlag = true;      // game starts with two or more players
       }
 
-      else if (word.equals("-z") || (mswinFlag && word.equals("/z")))
+      else if (word.startsWith("-digest")
+        || (mswinFlag && word.startsWith("/digest")))
       {
-        /* Write all zeros: 0x00 bytes. */
+        /* Name of a message digest algorithm, as known to Java.  Check now that
+        the algorithm exists, so we don't fail after creating the file. */
 
-        dataBytes = new byte[] {(byte) 0};
-        randomFlag = false;
+        digestName = args[i].substring(7); // keep user's uppercase letters
+        try { MessageDigest.getInstance(digestName); }
+        catch (NoSuchAlgorithmException nsae)
+        {
+          System.err.println("Message digest algorithm not found: "
+            + args[i]);
+          showHelp();
+          System.exit(EXIT_FAILURE);
+        }
       }
 
-      else if (word.startsWith("-") || (mswinFlag && word.startsWith("/")))
+      else if (word.equals("-direct") || (mswinFlag && word.equals("/direct")))
       {
-        System.err.println("Option not recognized: " + args[i]);
-        showHelp();
-        System.exit(EXIT_FAILURE);
+        directFlag = true;        // bypass the file cache
       }
 
-      else if (fileSize < 0)      // do we have a file size yet?
+      else if (word.startsWith("-fanout")
+        || (mswinFlag && word.startsWith("/fanout")))
       {
-        fileSize = parseFileSize(word); // returns file size or negative
-        if (fileSize < 0)
+        /* Number of directories in each directory of a tree, except at the
+        bottom. */
+
+        try                       // try to parse remainder as unsigned integer
         {
-          System.err.println("First parameter must be file size in bytes: "
+          treeFanout = Integer.parseInt(word.substring(7));
+        }
+        catch (NumberFormatException nfe) // if not a number or bad syntax
+        {
+          treeFanout = -1;        // set result to an illegal value
+        }
+        if ((treeFanout < 1) || (treeFanout > 100000))
+        {
+          System.err.println("Tree fan-out must be from 1 to 100000: "
             + args[i]);
           showHelp();
           System.exit(EXIT_FAILURE);
         }
       }
 
-      else if (fileName == null)  // do we have a file name yet?
+      else if (word.startsWith("-files")
+        || (mswinFlag && word.startsWith("/files")))
       {
-        fileName = args[i];       // accept any non-empty string (lazy)
+        /* Total number of files in a tree, with the same syntax as the file
+        size. */
+
+        treeFiles = parseFileSize(word.substring(6));
+        if (treeFiles < 0)
+        {
+          System.err.println("Number of files must be zero or more: "
+            + args[i]);
+          showHelp();
+          System.exit(EXIT_FAILURE);
+        }
       }
 
-      else
+      else if (word.startsWith("-json")
+        || (mswinFlag && word.startsWith("/json")))
       {
-        System.err.println("Too many parameters on command line: " + args[i]);
-        showHelp();
-        System.exit(EXIT_FAILURE);
+        jsonName = args[i].substring(5); // keep user's uppercase letters
+        if (jsonName.length() == 0)
+        {
+          System.err.println("Missing file name for JSON statistics: "
+            + args[i]);
+          showHelp();
+          System.exit(EXIT_FAILURE);
+        }
       }
-    }
-
-    /* Check for required parameters. */
 
-    if (fileSize < 0)
-    {
-      System.err.println("Missing first parameter: file size in bytes.");
-      showHelp();
-      System.exit(EXIT_FAILURE);
-    }
+      else if (word.equals("-latency")
+        || (mswinFlag && word.equals("/latency")))
+      {
+        latencyFlag = true;       // show histogram of write times
+      }
 
-    if (fileName == null)
-    {
-      System.err.println("Missing second parameter: output file name.");
-      showHelp();
-      System.exit(EXIT_FAILURE);
-    }
+      else if (word.equals("-map") || (mswinFlag && word.equals("/map")))
+      {
+        mapFlag = true;           // write with memory-mapped windows
+      }
 
-    /* Protect code below if the code above didn't set options properly. */
+      else if (word.equals("-overwrite")
+        || (mswinFlag && word.equals("/overwrite")))
+      {
+        overwriteFlag = true;     // write over an existing file in place
+      }
 
-    if ((dataBytes == null) || (dataBytes.length == 0))
-    {
-      dataBytes = null;           // set or reset
-      dataLength = 0;
-      randomFlag = true;
-    }
-    else
-      dataLength = dataBytes.length; // this number will be positive (>0)
+      else if (word.startsWith("-passes")
+        || (mswinFlag && word.startsWith("/passes")))
+      {
+        /* Data options for each pass of -overwrite, separated by slashes.  The
+        options are parsed after all options have been read, when the seed is
+        known. */
 
-    /* BufferedOutputStream is relatively slow for large files, so write our
-    own big buffer directly with FileOutputStream, reducing the last piece to
-    fit the desired final size.  The end of our buffer may not align with the
-    end of a repeating pattern, unless the length of the pattern divides the
-    size of our buffer without a remainder. */
+        passList = args[i].substring(7); // keep user's uppercase letters
+        if (passList.length() == 0)
+        {
+          System.err.println("Missing data options for passes: " + args[i]);
+          showHelp();
+          System.exit(EXIT_FAILURE);
+        }
+      }
 
-    if (randomFlag)               // are we writing pseudo-random data?
-    {
-      buffer = new byte[BUFFER_SIZE]; // exact size, refill each time
-      randomGen = new java.util.Random(); // create random number generator
-    }
-    else                          // no, fill buffer with constant data
-    {
-      buffer = new byte[BUFFER_SIZE + dataLength]; // extra copy of pattern
-      for (i = 0; i < buffer.length; i ++)
-        buffer[i] = dataBytes[i % dataLength];
-    }
+      else if (word.startsWith("-progress")
+        || (mswinFlag && word.startsWith("/progress")))
+      {
+        /* Seconds between progress reports.  Without a number, use the
+        default. */
 
-    /* We use the same buffer, over and over again, until we reach the user's
-    desired size, or have an I/O error.  Since this is a console application,
-    there is no "cancel" button or any way of interrupting the program, other
-    than terminating the Java process. */
+        if (word.length() == 9)   // nothing after the option name
+          progressSeconds = CreateDummyFile2Stats.DEFAULT_PROGRESS;
+        else try                  // try to parse remainder as unsigned integer
+        {
+          progressSeconds = Integer.parseInt(word.substring(9));
+        }
+        catch (NumberFormatException nfe) // if not a number or bad syntax
+        {
+          progressSeconds = -1;   // set result to an illegal value
+        }
+        if ((progressSeconds < 1) || (progressSeconds > 86400))
+        {
+          System.err.println(
+            "Progress interval must be from 1 to 86400 seconds: " + args[i]);
+          showHelp();
+          System.exit(EXIT_FAILURE);
+        }
+      }
 
-    try                           // catch file I/O errors
-    {
-      out = new FileOutputStream(fileName); // try to create output file
-      bytesDone = 0;              // no bytes written so far
-      k = 0;                      // starting offset in our buffer
-      while (bytesDone < fileSize) // go until full size or I/O error
+      else if (word.startsWith("-rate")
+        || (mswinFlag && word.startsWith("/rate")))
       {
-        if (randomFlag)           // random bytes or random selection?
+        /* Bytes per second, with the same syntax as the file size, and an
+        optional "/s" at the end for people who like units. */
+
+        rateLimit = parseFileSize(word.endsWith("/s") ? word.substring(5,
+          (word.length() - 2)) : word.substring(5));
+        if (rateLimit <= 0)
         {
-          if (dataBytes == null)  // fill with pseudo-random data bytes
-            randomGen.nextBytes(buffer);
-          else                    // random selection from user's bytes
-            for (i = 0; i < BUFFER_SIZE; i ++)
-              buffer[i] = dataBytes[randomGen.nextInt(dataLength)];
+          System.err.println("Rate must be one byte per second or more: "
+            + args[i]);
+          showHelp();
+          System.exit(EXIT_FAILURE);
         }
-        else                      // adjust offset to maintain pattern
-          k = (int) (bytesDone % dataLength);
-        thisSize = (int) Math.min((fileSize - bytesDone), BUFFER_SIZE);
-        out.write(buffer, k, thisSize); // write up to one block of data
-        bytesDone += thisSize;    // more bytes done, closer to the end
       }
-      out.close();                // try to close output file
-      System.out.println("Created file with " + formatComma.format(bytesDone)
-        + " bytes.");
-    }
-    catch (IOException ioe)
-    {
-      System.err.println("Error while writing file: " + ioe.getMessage());
-      System.exit(EXIT_FAILURE);
-    }
 
-    System.exit(EXIT_SUCCESS);    // if we get here, everything is good
+      else if (word.startsWith("-regions")
+        || (mswinFlag && word.startsWith("/regions")))
+      {
+        /* Number of regions written in parallel, each by its own thread.  Zero
+        means that the file is written in order, from start to end. */
 
-  } // end of main() method
+        try                       // try to parse remainder as unsigned integer
+        {
+          regionCount = Integer.parseInt(word.substring(8));
+        }
+        catch (NumberFormatException nfe) // if not a number or bad syntax
+        {
+          regionCount = -1;       // set result to an illegal value
+        }
+        if ((regionCount < 0) || (regionCount > MAX_THREADS))
+        {
+          System.err.println("Number of regions must be from 0 to "
+            + MAX_THREADS + ": " + args[i]);
+          showHelp();
+          System.exit(EXIT_FAILURE);
+        }
+      }
 
+      else if (word.equals("-resume") || (mswinFlag && word.equals("/resume")))
+      {
+        resumeFlag = true;        // continue writing an existing file
+      }
 
-/*
-  parseDecBytes() method
+      else if (word.startsWith("-seed")
+        || (mswinFlag && word.startsWith("/seed")))
+      {
+        /* Seed for the pseudo-random data, so that a file can be created again
+        with identical contents, or checked later without saving a copy. */
 
-  Convert decimal digits representing data bytes to real binary bytes.  Accept
-  almost any US-ASCII punctuation as a separator.  Return <null> if the input
-  has errors.
+        try                       // try to parse remainder as signed integer
+        {
+          randomSeed = Long.parseLong(word.substring(5));
+          seedFlag = true;
+        }
+        catch (NumberFormatException nfe) // if not a number or bad syntax
+        {
+          System.err.println("Random seed must be a decimal integer: "
+            + args[i]);
+          showHelp();
+          System.exit(EXIT_FAILURE);
+        }
+      }
+
+      else if (word.equals("-sum") || (mswinFlag && word.equals("/sum")))
+      {
+        sumFlag = true;           // save checksums in a file
+      }
+
+      else if (word.startsWith("-stripe")
+        || (mswinFlag && word.startsWith("/stripe")))
+      {
+        /* Bytes per stripe when the file is split across several targets,
+        with the same syntax as the file size. */
+
+        stripeSize = parseFileSize(word.substring(7));
+        if (stripeSize <= 0)
+        {
+          System.err.println("Stripe size must be one byte or more: "
+            + args[i]);
+          showHelp();
+          System.exit(EXIT_FAILURE);
+        }
+      }
+
+      else if (word.startsWith("-sync")
+        || (mswinFlag && word.startsWith("/sync")))
+      {
+        /* Force data to disk before closing the file, and every # bytes if a
+        size is given.  "-syncdata" skips metadata that isn't needed to read
+        the data back, such as the modification time. */
+
+        syncMetadata = (word.startsWith("data", 5) == false);
+        j = syncMetadata ? 5 : 9; // index after option name
+        syncInterval = (word.length() == j) ? 0 : parseFileSize(
+          word.substring(j));
+        if (syncInterval < 0)
+        {
+          System.err.println("Sync interval must be a number of bytes: "
+            + args[i]);
+          showHelp();
+          System.exit(EXIT_FAILURE);
+        }
+        syncFlag = true;          // force data to disk
+      }
+
+      else if (word.equals("-targets")
+        || (mswinFlag && word.equals("/targets")))
+      {
+        targetsFlag = true;       // write several files at once
+      }
+
+      else if (word.startsWith("-text")
+        || (mswinFlag && word.startsWith("/text")))
+      {
+        /* Template for lines of text.  The template is compiled after all
+        options have been read, when the seed is known. */
+
+        textTemplate = args[i].substring(5); // keep user's uppercase letters
+        if (textTemplate.length() == 0)
+        {
+          System.err.println("Text template must have at least one character: "
+            + args[i]);
+          showHelp();
+          System.exit(EXIT_FAILURE);
+        }
+      }
+
+      else if (word.startsWith("-threads")
+        || (mswinFlag && word.startsWith("/threads")))
+      {
+        /* Number of worker threads generating pseudo-random data.  Zero means
+        that the main thread generates data between writes, as before. */
+
+        try                       // try to parse remainder as unsigned integer
+        {
+          threadCount = Integer.parseInt(word.substring(8));
+        }
+        catch (NumberFormatException nfe) // if not a number or bad syntax
+        {
+          threadCount = -1;       // set result to an illegal value
+        }
+        if ((threadCount < 0) || (threadCount > MAX_THREADS))
+        {
+          System.err.println("Number of threads must be from 0 to "
+            + MAX_THREADS + ": " + args[i]);
+          showHelp();
+          System.exit(EXIT_FAILURE);
+        }
+      }
+
+      else if (word.startsWith("-d") || (mswinFlag && word.startsWith("/d")))
+      {
+        /* One or more decimal values for data bytes.  Separators are optional
+        but recommended.  Otherwise, every third digit starts a new byte. */
+
+        dataBytes = parseDecBytes(word.substring(2));
+        if ((dataBytes == null) || (dataBytes.length == 0))
+        {
+          System.err.println("Decimal byte data must be from 000 to 255: "
+            + args[i]);
+          showHelp();
+          System.exit(EXIT_FAILURE);
+        }
+        randomFlag = false;       // use given value, not pseudo-random
+      }
+
+      else if (word.startsWith("-h") || (mswinFlag && word.startsWith("/h")))
+      {
+        /* One or more hexadecimal values for data bytes, and separators. */
+
+        dataBytes = parseHexBytes(word.substring(2));
+        if ((dataBytes == null) || (dataBytes.length == 0))
+        {
+          System.err.println("Hexadecimal byte data must be from 00 to FF: "
+            + args[i]);
+          showHelp();
+          System.exit(EXIT_FAILURE);
+        }
+        randomFlag = false;
+      }
+
+      else if (word.equals("-o") || (mswinFlag && word.equals("/o")))
+      {
+        /* Write all ones: 0xFF bytes. */
+
+        dataBytes = new byte[] {(byte) BYTE_MASK};
+        randomFlag = false;
+      }
+
+      else if (word.startsWith("-p") || (mswinFlag && word.startsWith("/p")))
+      {
+        /* A text pattern to repeat.  Change code here to customize how the
+        user's text is converted into bytes. */
+
+        dataBytes = args[i].substring(2).getBytes(); // local character set
+        if ((dataBytes == null) || (dataBytes.length == 0))
+        {
+          System.err.println(
+            "Text pattern to repeat must have at least one byte: " + args[i]);
+          showHelp();
+          System.exit(EXIT_FAILURE);
+        }
+        randomFlag = false;
+      }
+
+      else if (word.startsWith("-r") || (mswinFlag && word.startsWith("/r")))
+      {
+        /* Write random data.  Undocumented option: if two or more hex bytes
+        are given, then randomly select from those bytes.  A devious choice:
+
+          -r30,30,30,30,30,31,31,31,31,32,32,32,33,33,33,34,34,35,35,36,36,37,37,38,39
+
+        produces US-ASCII (UTF-8) digits that look like they have meaning, but
+        don't.  This should trouble some file-recovery programs. */
+
+        dataBytes = parseHexBytes(word.substring(2));
+        if (dataBytes == null)    // some sort of parsing error
+        {
+          System.err.println("Random byte data must be hex from 00 to FF: "
+            + args[i]);
+          showHelp();
+          System.exit(EXIT_FAILURE);
+        }
+        else if (dataBytes.length == 0) // most common case: nothing given
+        {
+          dataBytes = null;       // remove array data
+          randomFlag = true;
+        }
+        else if (dataBytes.length == 1)
+          randomFlag = false;     // not random if selecting from one item
+        else
+          randomFlag = true;      // game starts with two or more players
+      }
+
+      else if (word.equals("-tree") || (mswinFlag && word.equals("/tree")))
+      {
+        treeFlag = true;          // create a tree of directories and files
+      }
+
+      else if (word.equals("-verify") || (mswinFlag && word.equals("/verify")))
+      {
+        verifyFlag = true;        // check existing file, don't create
+      }
+
+      else if (word.startsWith("-writesize")
+        || (mswinFlag && word.startsWith("/writesize")))
+      {
+        /* Bytes per write, or a range of sizes separated by a hyphen, with the
+        same syntax as the file size.  The limit keeps our buffer reasonable. */
+
+        j = word.indexOf('-', 10); // hyphen between two sizes, if any
+        if (j < 0)                // one size for all writes
+          writeMax = writeMin = parseFileSize(word.substring(10));
+        else                      // random sizes from minimum to maximum
+        {
+          writeMin = parseFileSize(word.substring(10, j));
+          writeMax = parseFileSize(word.substring(j + 1));
+        }
+        if ((writeMin <= 0) || (writeMax < writeMin)
+          || (writeMax > CreateDummyFile2Pacer.MAX_WRITE))
+        {
+          System.err.println("Write size must be from 1 byte to "
+            + (CreateDummyFile2Pacer.MAX_WRITE >> 20) + " MB: " + args[i]);
+          showHelp();
+          System.exit(EXIT_FAILURE);
+        }
+      }
+
+      else if (word.equals("-z") || (mswinFlag && word.equals("/z")))
+      {
+        /* Write all zeros: 0x00 bytes. */
+
+        dataBytes = new byte[] {(byte) 0};
+        randomFlag = false;
+        sparseFlag = touchFlag = false; // write every byte
+      }
+
+      else if (word.equals("-zs") || (mswinFlag && word.equals("/zs")))
+      {
+        /* Zero file by setting the size, without writing data. */
+
+        dataBytes = new byte[] {(byte) 0};
+        randomFlag = false;
+        sparseFlag = true;
+        touchFlag = false;
+      }
+
+      else if (word.equals("-zt") || (mswinFlag && word.equals("/zt")))
+      {
+        /* Zero file by setting the size, then touching each block. */
+
+        dataBytes = new byte[] {(byte) 0};
+        randomFlag = false;
+        sparseFlag = false;
+        touchFlag = true;
+      }
+
+      else if ((word.startsWith("-") && (word.equals("-") == false))
+        || (mswinFlag && word.startsWith("/")))
+      {
+        System.err.println("Option not recognized: " + args[i]);
+        showHelp();
+        System.exit(EXIT_FAILURE);
+      }
+
+      else if (batchFlag && (fileName == null)) // manifest replaces size, name
+      {
+        fileName = args[i];       // hyphen (-) means standard input
+      }
+
+      else if (treeFlag && (treeSizes == null)) // size distribution for tree
+      {
+        treeSizes = args[i];      // keep case for histogram file name
+      }
+
+      else if (treeFlag && (fileName == null)) // top directory for tree
+      {
+        fileName = args[i];
+      }
+
+      else if (overwriteFlag && (fileName == null)) // size comes from file
+      {
+        fileName = args[i];
+      }
+
+      else if (overwriteFlag)     // no file size for -overwrite
+      {
+        System.err.println(
+          "Option -overwrite has only one parameter, the file name: "
+          + args[i]);
+        showHelp();
+        System.exit(EXIT_FAILURE);
+      }
+
+      else if (fileSize < 0)      // do we have a file size yet?
+      {
+        fileSize = parseFileSize(word); // returns file size or negative
+        if (fileSize < 0)
+        {
+          System.err.println("First parameter must be file size in bytes: "
+            + args[i]);
+          showHelp();
+          System.exit(EXIT_FAILURE);
+        }
+      }
+
+      else if (fileName == null)  // do we have a file name yet?
+      {
+        fileName = args[i];       // accept any non-empty string (lazy)
+        targetNames.add(fileName);
+      }
+
+      else if (targetsFlag)       // more file names for -targets
+      {
+        targetNames.add(args[i]);
+      }
+
+      else
+      {
+        System.err.println("Too many parameters on command line: " + args[i]);
+        showHelp();
+        System.exit(EXIT_FAILURE);
+      }
+    }
+
+    /* Make a list of the options that were given, by name, other than data
+    options and -seed#.  Modes that only accept a few options check this list
+    with the otherOptions() method, instead of testing every flag. */
+
+    givenOptions = new ArrayList<String>();
+    if (batchFlag) givenOptions.add("-batch");
+    if (reduceBlock > 0) givenOptions.add("-block#");
+    if (burstSize > 0) givenOptions.add("-burst#");
+    if (chunkSize > 0) givenOptions.add("-chunk#");
+    if (compareFlag) givenOptions.add("-compare");
+    if (compressRatio > 1.0) givenOptions.add("-compress#");
+    if (crcFlag) givenOptions.add("-crc");
+    if (dedupeRatio > 1.0) givenOptions.add("-dedupe#");
+    if (digestName != null) givenOptions.add("-digest#");
+    if (directFlag) givenOptions.add("-direct");
+    if (jsonName != null) givenOptions.add("-json#");
+    if (latencyFlag) givenOptions.add("-latency");
+    if (mapFlag) givenOptions.add("-map");
+    if (overwriteFlag) givenOptions.add("-overwrite");
+    if (passList != null) givenOptions.add("-passes#");
+    if (progressSeconds > 0) givenOptions.add("-progress#");
+    if (rateLimit > 0) givenOptions.add("-rate#");
+    if (regionCount > 0) givenOptions.add("-regions#");
+    if (resumeFlag) givenOptions.add("-resume");
+    if (stripeSize > 0) givenOptions.add("-stripe#");
+    if (sumFlag) givenOptions.add("-sum");
+    if (syncFlag) givenOptions.add("-sync#");
+    if (targetsFlag) givenOptions.add("-targets");
+    if (textTemplate != null) givenOptions.add("-text#");
+    if (threadCount > 0) givenOptions.add("-threads#");
+    if (treeFlag) givenOptions.add("-tree");
+    if (verifyFlag) givenOptions.add("-verify");
+    if (writeMax > 0) givenOptions.add("-writesize#");
+    if (sparseFlag) givenOptions.add("-zs");
+    if (touchFlag) givenOptions.add("-zt");
+
+    /* Batch mode has its own parameters, and takes data options as defaults
+    for each line in the manifest file. */
+
+    if (batchFlag)
+    {
+      if (otherOptions(givenOptions, "-batch", "-sync#", "-threads#"))
+      {
+        System.err.println("Option -batch can only be combined with data "
+          + "options, -seed#, sync options,");
+        System.err.println("and -threads#.");
+        showHelp();
+        System.exit(EXIT_FAILURE);
+      }
+      if (seedFlag == false)      // without a seed, make up a new seed
+        randomSeed = new java.util.Random().nextLong();
+      System.exit(runBatch(fileName, dataBytes, randomFlag, randomSeed,
+        ((threadCount > 0) ? threadCount
+        : Runtime.getRuntime().availableProcessors())) ? EXIT_SUCCESS
+        : EXIT_FAILURE);
+    }
+
+    /* Tree mode is like batch mode, with a size distribution instead of a file
+    size, and the file name is the top directory. */
+
+    if ((treeFlag == false) && ((treeDepth >= 0) || (treeFanout >= 0)
+      || (treeFiles >= 0)))
+    {
+      System.err.println("Options -depth#, -fanout#, and -files# need the "
+        + "-tree option.");
+      showHelp();
+      System.exit(EXIT_FAILURE);
+    }
+
+    if (treeFlag)
+    {
+      if (otherOptions(givenOptions, "-sync#", "-threads#", "-tree"))
+      {
+        System.err.println("Option -tree can only be combined with data "
+          + "options, -seed#, sync options,");
+        System.err.println("and -threads#.");
+        showHelp();
+        System.exit(EXIT_FAILURE);
+      }
+      if ((treeSizes == null) || (fileName == null))
+      {
+        System.err.println("Option -tree needs a file size and a directory "
+          + "name.");
+        showHelp();
+        System.exit(EXIT_FAILURE);
+      }
+      if (treeDepth < 0) treeDepth = 2; // default shape of tree
+      if (treeFanout < 0) treeFanout = 10;
+      if (treeFiles < 0) treeFiles = 1000;
+      if (CreateDummyFile2Tree.directoryCount(treeDepth, treeFanout) < 0)
+      {
+        System.err.println("Tree can't have more than "
+          + formatComma.format(CreateDummyFile2Tree.MAX_DIRECTORIES)
+          + " directories.");
+        showHelp();
+        System.exit(EXIT_FAILURE);
+      }
+      if (seedFlag == false)      // without a seed, make up a new seed
+        randomSeed = new java.util.Random().nextLong();
+      tree = new CreateDummyFile2Tree(fileName, treeDepth, treeFanout,
+        treeFiles, dataBytes, randomFlag, randomSeed);
+      if ((treeError = tree.setSizes(treeSizes)) != null)
+      {
+        System.err.println(treeError);
+        showHelp();
+        System.exit(EXIT_FAILURE);
+      }
+      System.exit(runTree(tree, ((threadCount > 0) ? threadCount
+        : Runtime.getRuntime().availableProcessors())) ? EXIT_SUCCESS
+        : EXIT_FAILURE);
+    }
+
+    /* Overwrite mode has only a file name, and takes the file size from the
+    existing file.  Each pass has its own data option. */
+
+    if ((overwriteFlag == false) && (passList != null))
+    {
+      System.err.println("Option -passes# needs the -overwrite option.");
+      showHelp();
+      System.exit(EXIT_FAILURE);
+    }
+
+    if (overwriteFlag)
+    {
+      if (otherOptions(givenOptions, "-overwrite", "-passes#", "-regions#",
+        "-sync#"))
+      {
+        System.err.println("Option -overwrite can only be combined with data "
+          + "options, -passes#, -regions#,");
+        System.err.println("-seed#, and sync options.");
+        showHelp();
+        System.exit(EXIT_FAILURE);
+      }
+      if (fileName == null)
+      {
+        System.err.println(
+          "Option -overwrite needs the name of an existing file.");
+        showHelp();
+        System.exit(EXIT_FAILURE);
+      }
+      if (seedFlag == false)      // without a seed, make up a new seed
+        randomSeed = new java.util.Random().nextLong();
+      passes = new ArrayList<CreateDummyFile2Data>();
+      if (passList == null)       // one pass with the usual data option
+        passes.add(new CreateDummyFile2Data(dataBytes, randomFlag,
+          randomSeed));
+      else                        // data option for each pass
+      {
+        passWords = passList.split("/", -1); // keep empty options as errors
+        for (j = 0; j < passWords.length; j ++)
+        {
+          if ((data = parsePass(passWords[j], (randomSeed + j))) == null)
+          {
+            System.err.println(
+              "Each pass must be a data option such as z, o, h55, or r: "
+              + passWords[j]);
+            showHelp();
+            System.exit(EXIT_FAILURE);
+          }
+          passes.add(data);
+        }
+      }
+      System.exit(overwriteFile(fileName, passes, ((regionCount > 0)
+        ? regionCount : Runtime.getRuntime().availableProcessors()))
+        ? EXIT_SUCCESS : EXIT_FAILURE);
+    }
+
+    /* Check for required parameters. */
+
+    if (fileSize < 0)
+    {
+      System.err.println("Missing first parameter: file size in bytes.");
+      showHelp();
+      System.exit(EXIT_FAILURE);
+    }
+
+    if (fileName == null)
+    {
+      System.err.println("Missing second parameter: output file name.");
+      showHelp();
+      System.exit(EXIT_FAILURE);
+    }
+
+    /* Only one method for writing the output file can be chosen.  Worker
+    threads are for methods that write buffers in order.  Checking a file with
+    -verify may read regions in parallel, but doesn't write anything. */
+
+    if (((compareFlag ? 1 : 0) + (directFlag ? 1 : 0) + (mapFlag ? 1 : 0)
+      + ((regionCount > 0) ? 1 : 0) + ((sparseFlag || touchFlag) ? 1 : 0)) > 1)
+    {
+      System.err.println("Only one of -compare, -direct, -map, -regions#, -zs, "
+        + "or -zt can be given.");
+      showHelp();
+      System.exit(EXIT_FAILURE);
+    }
+
+    if (verifyFlag && ((burstSize > 0) || compareFlag || crcFlag
+      || (digestName != null) || directFlag || (jsonName != null)
+      || latencyFlag || mapFlag || (progressSeconds > 0) || (rateLimit > 0)
+      || sparseFlag || sumFlag || (threadCount > 0) || touchFlag
+      || (writeMax > 0)))
+    {
+      System.err.println("Option -verify can only be combined with data "
+        + "options, -regions#, and -seed#.");
+      showHelp();
+      System.exit(EXIT_FAILURE);
+    }
+
+    if ((threadCount > 0) && (compareFlag || mapFlag || (regionCount > 0)))
+    {
+      System.err.println("Option -threads# can't be combined with -compare, "
+        + "-map, or -regions#.");
+      showHelp();
+      System.exit(EXIT_FAILURE);
+    }
+
+    stdoutFlag = fileName.equals("-"); // hyphen means standard output
+    if (stdoutFlag && (compareFlag || directFlag || mapFlag
+      || (regionCount > 0) || sparseFlag || sumFlag || syncFlag || touchFlag
+      || verifyFlag))
+    {
+      System.err.println("Standard output (-) can only be written by the "
+        + "normal output method, without");
+      System.err.println("-sum or -sync#.");
+      showHelp();
+      System.exit(EXIT_FAILURE);
+    }
+
+    if (targetsFlag && (otherOptions(givenOptions, "-block#", "-compress#",
+      "-dedupe#", "-direct", "-stripe#", "-sync#", "-targets", "-threads#")
+      || targetNames.contains("-")))
+    {
+      System.err.println("Option -targets can only be combined with data "
+        + "options, -direct, -seed#, -stripe#,");
+      System.err.println("sync options, and -threads#, and can't write to "
+        + "standard output (-).");
+      showHelp();
+      System.exit(EXIT_FAILURE);
+    }
+
+    if ((textTemplate != null) && ((compressRatio > 1.0)
+      || (dedupeRatio > 1.0) || (regionCount > 0) || targetsFlag
+      || (threadCount > 0)))
+    {
+      System.err.println("Option -text# makes lines in order, and can't be "
+        + "combined with -compress#,");
+      System.err.println("-dedupe#, -regions#, -targets, or -threads#.");
+      showHelp();
+      System.exit(EXIT_FAILURE);
+    }
+
+    if ((stripeSize > 0) && ((targetsFlag == false) || directFlag
+      || (threadCount > 0)))
+    {
+      System.err.println("Option -stripe# needs the -targets option, and can't "
+        + "be combined with -direct");
+      System.err.println("or -threads#.");
+      showHelp();
+      System.exit(EXIT_FAILURE);
+    }
+
+    if (resumeFlag && ((chunkSize > 0) || compareFlag || crcFlag
+      || (digestName != null) || mapFlag || (regionCount > 0) || sparseFlag
+      || stdoutFlag || sumFlag || touchFlag || verifyFlag))
+    {
+      System.err.println("Option -resume can't be combined with checksums, "
+        + "-compare, -map, -regions#,");
+      System.err.println("-verify, -zs, -zt, or standard output.");
+      showHelp();
+      System.exit(EXIT_FAILURE);
+    }
+
+    if ((crcFlag || (digestName != null) || sumFlag) && (compareFlag
+      || (regionCount > 0) || sparseFlag || touchFlag))
+    {
+      System.err.println(
+        "Checksums can't be combined with -compare, -regions#, -zs, or -zt.");
+      showHelp();
+      System.exit(EXIT_FAILURE);
+    }
+
+    if (((jsonName != null) || latencyFlag || (progressSeconds > 0))
+      && (compareFlag || sparseFlag || touchFlag))
+    {
+      System.err.println(
+        "Statistics can't be combined with -compare, -zs, or -zt.");
+      showHelp();
+      System.exit(EXIT_FAILURE);
+    }
+
+    if (((burstSize > 0) || (rateLimit > 0) || (writeMax > 0)) && (compareFlag
+      || directFlag || mapFlag || (regionCount > 0) || sparseFlag
+      || (threadCount > 0) || touchFlag))
+    {
+      System.err.println("Options -burst#, -rate#, and -writesize# are for "
+        + "normal output, without");
+      System.err.println("-threads#.");
+      showHelp();
+      System.exit(EXIT_FAILURE);
+    }
+
+    if ((reduceBlock > 0) && (compressRatio == 1.0) && (dedupeRatio == 1.0))
+    {
+      System.err.println("Option -block# needs the -compress# or -dedupe# "
+        + "option.");
+      showHelp();
+      System.exit(EXIT_FAILURE);
+    }
+
+    if ((burstSize > 0) && (rateLimit == 0))
+    {
+      System.err.println("Option -burst# needs the -rate# option.");
+      showHelp();
+      System.exit(EXIT_FAILURE);
+    }
+
+    if (syncFlag && (compareFlag || verifyFlag))
+    {
+      System.err.println("Sync options can't be combined with -compare or "
+        + "-verify.");
+      showHelp();
+      System.exit(EXIT_FAILURE);
+    }
+
+    if (sumFlag && (crcFlag == false) && (digestName == null)
+      && (chunkSize == 0))        // need something to put in the file
+    {
+      crcFlag = true;             // default for -sum is a CRC32C checksum
+    }
+
+    /* The data object protects code below if the code above didn't set options
+    properly. */
+
+    if (seedFlag == false)        // without a seed, make up a new seed
+      randomSeed = new java.util.Random().nextLong();
+    data = new CreateDummyFile2Data(dataBytes, randomFlag, randomSeed,
+      compressRatio, dedupeRatio, (int) ((reduceBlock > 0) ? reduceBlock
+      : CreateDummyFile2Data.REDUCE_BLOCK));
+    if (textTemplate != null)     // lines of text replace other data
+    {
+      text = new CreateDummyFile2Text(randomSeed);
+      if (((textError = text.setTemplate(textTemplate)) != null)
+        || ((textError = text.checkSize(fileSize)) != null))
+      {
+        System.err.println(textError);
+        showHelp();
+        System.exit(EXIT_FAILURE);
+      }
+      data = new CreateDummyFile2Data(text);
+    }
+
+    if (((compressRatio > 1.0) || (dedupeRatio > 1.0)) && ((data.randomFlag
+      == false) || (data.dataBytes != null))) // not plain pseudo-random?
+    {
+      System.err.println("Options -compress# and -dedupe# can only be used "
+        + "with pseudo-random data (-r).");
+      showHelp();
+      System.exit(EXIT_FAILURE);
+    }
+
+    if ((sparseFlag || touchFlag) && (data.randomFlag || (data.dataLength != 1)
+      || (data.dataBytes[0] != 0))) // another data option after -zs, -zt?
+    {
+      System.err.println("Options -zs and -zt can't be combined with other "
+        + "data options.");
+      showHelp();
+      System.exit(EXIT_FAILURE);
+    }
+
+    if (verifyFlag && data.randomFlag && (seedFlag == false))
+    {
+      System.err.println(
+        "Option -verify needs the -seed# option to check pseudo-random data.");
+      showHelp();
+      System.exit(EXIT_FAILURE);
+    }
+
+    if (resumeFlag && data.randomFlag && (seedFlag == false))
+    {
+      System.err.println("Option -resume needs the -seed# option to continue "
+        + "pseudo-random data.");
+      showHelp();
+      System.exit(EXIT_FAILURE);
+    }
+
+    if (targetsFlag)              // several files have their own buffers
+    {
+      System.exit(runTargets(targetNames, fileSize, stripeSize, data,
+        directFlag, threadCount) ? EXIT_SUCCESS : EXIT_FAILURE);
+    }
+
+    /* When resuming, keep the existing file up to the last full buffer.  The
+    end of the file may not be the end of a complete write, and starting on a
+    buffer boundary keeps worker threads on their usual block numbers. */
+
+    if (resumeFlag && new File(fileName).exists())
+    {
+      try
+      {
+        resumeFile = new RandomAccessFile(fileName, "rw");
+        if (resumeFile.length() > fileSize)
+        {
+          System.err.println("Can't resume file that is already larger: "
+            + formatComma.format(resumeFile.length()) + " bytes");
+          resumeFile.close();
+          System.exit(EXIT_FAILURE);
+        }
+        resumeOffset = (resumeFile.length() == fileSize) ? fileSize
+          : ((resumeFile.length() / BUFFER_SIZE) * BUFFER_SIZE);
+        resumeFile.setLength(resumeOffset); // remove any partial write
+        resumeFile.close();
+      }
+      catch (IOException ioe)
+      {
+        System.err.println("Can't resume file: " + ioe.getMessage());
+        System.exit(EXIT_FAILURE);
+      }
+      System.out.println("Resuming at offset " + formatComma.format(
+        resumeOffset) + " of " + formatComma.format(fileSize) + " bytes.");
+    }
+
+    /* Allocate our big buffer, which is written directly, with the last piece
+    reduced to fit the desired final size.  The end of our buffer may not align
+    with the end of a repeating pattern, unless the length of the pattern
+    divides the size of our buffer without a remainder, so the buffer has an
+    extra copy of the pattern to start at any offset. */
+
+    if (data.randomFlag && (regionCount > 0)) // pseudo-random in regions?
+    {
+      buffer = null;              // each region has its own buffer
+    }
+    else if (data.randomFlag && (threadCount > 0)) // with worker threads?
+    {
+      buffer = null;              // buffers come from worker threads
+      pipeline = new CreateDummyFile2Pipeline(data, threadCount,
+        (resumeOffset / BUFFER_SIZE), ((fileSize + BUFFER_SIZE - 1)
+        / BUFFER_SIZE));
+    }
+    else if (data.randomFlag)     // are we writing pseudo-random data?
+    {
+      buffer = new byte[BUFFER_SIZE]; // exact size, refill each time
+    }
+    else                          // no, fill buffer with constant data
+    {
+      buffer = new byte[BUFFER_SIZE + data.dataLength]; // extra pattern copy
+      data.fillPattern(buffer, buffer.length);
+    }
+
+    /* When data goes to standard output, messages must go somewhere else.  The
+    data is written to the file descriptor, which is not affected by this. */
+
+    if (stdoutFlag)
+      System.setOut(System.err);  // all messages to standard error
+
+    try                           // catch file I/O errors
+    {
+      if (verifyFlag)             // check existing file, don't create
+      {
+        System.exit(verifyFile(fileName, fileSize, data,
+          Math.max(regionCount, 1), (data.randomFlag ? null : buffer))
+          ? EXIT_SUCCESS : EXIT_FAILURE);
+      }
+
+      if (compareFlag)            // write file both ways and compare speed
+      {
+        startTime = System.nanoTime();
+        bytesDone = writeStream(fileName, fileSize, data, buffer, null);
+        elapsed = System.nanoTime() - startTime;
+        System.out.println("Buffered output: " + formatSummary(bytesDone,
+          elapsed) + ".");
+        startTime = System.nanoTime();
+        bytesDone = writeMapped(fileName, fileSize, data, buffer);
+        elapsed = System.nanoTime() - startTime;
+        System.out.println("  Mapped output: " + formatSummary(bytesDone,
+          elapsed) + ".");
+        System.exit(EXIT_SUCCESS); // file was created, twice
+      }
+
+      if (crcFlag || (digestName != null) || (chunkSize > 0))
+      {
+        checksums = new CreateDummyFile2Digest(crcFlag, digestName, chunkSize,
+          (sumFlag ? (fileName + ".sum") : null), fileName);
+      }
+      if ((jsonName != null) || latencyFlag || (progressSeconds > 0))
+        stats = new CreateDummyFile2Stats(fileName, fileSize, progressSeconds);
+      if ((rateLimit > 0) || (writeMax > 0))
+        pacer = new CreateDummyFile2Pacer(rateLimit, burstSize,
+          (int) ((writeMin > 0) ? writeMin : BUFFER_SIZE),
+          (int) ((writeMax > 0) ? writeMax : BUFFER_SIZE));
+
+      if (stats != null)          // progress includes bytes kept by -resume
+        stats.bytesDone = resumeOffset;
+      if ((compareFlag || mapFlag || (regionCount > 0) || sparseFlag
+        || stdoutFlag || touchFlag) == false) // methods that can resume
+      {
+        addResumeHook(fileName);  // report progress if interrupted
+      }
+
+      startTime = System.nanoTime(); // don't count parsing or preparation
+      if (stats != null) stats.start(); // progress reports from now on
+      if (sparseFlag || touchFlag) // zero file without writing every byte
+        bytesDone = writeSparse(fileName, fileSize, touchFlag);
+      else if (directFlag)        // bypass the file cache
+        bytesDone = writeDirect(fileName, fileSize, data, buffer, pipeline);
+      else if (mapFlag)           // write through memory-mapped windows
+        bytesDone = writeMapped(fileName, fileSize, data, buffer);
+      else if (pacer != null)     // rate limit or other write sizes
+        bytesDone = writePaced(fileName, fileSize, data, buffer, pacer);
+      else if (regionCount > 0)   // parallel regions have their own loop
+        bytesDone = writeRegions(fileName, fileSize, data, regionCount,
+          buffer);
+      else                        // default is one FileOutputStream
+        bytesDone = writeStream(fileName, fileSize, data, buffer, pipeline);
+      elapsed = System.nanoTime() - startTime; // includes time to close
+      writePosition = -1;         // finished, nothing to resume
+      if (stats != null) stats.stop(); // no more progress reports
+      System.out.println("Created file with " + formatSummary(bytesDone,
+        elapsed) + ".");
+      if (syncFlag)               // time waiting for the disk
+        System.out.println(formatSync(bytesDone, elapsed,
+          (((regionCount > 0) && (syncInterval > 0)) ? regionCount : 1)));
+      if (data.reduceCache != null) // how close to target ratios
+        System.out.println(formatReduction(data, fileSize));
+      if ((pacer != null) && (rateLimit > 0)) // how close to target rate
+        pacer.report(bytesDone, elapsed);
+      if (checksums != null)      // report checksums after the file size
+        checksums.finish();
+      if (stats != null)          // report write times after checksums
+        stats.finish(bytesDone, elapsed, latencyFlag, jsonName);
+    }
+    catch (IOException ioe)
+    {
+      writePosition = -1;         // error already explains what happened
+      System.err.println("Error while " + (verifyFlag ? "checking" : "writing")
+        + " file: " + ioe.getMessage());
+      System.exit(EXIT_FAILURE);
+    }
+
+    System.exit(EXIT_SUCCESS);    // if we get here, everything is good
+
+  } // end of main() method
+
+
+/*
+  constructors
+
+  Create a generator for <size> bytes of pseudo-random data from a <seed>, or
+  a repeating <pattern>, or a random selection from a list of <bytes> with a
+  <seed>.  The bytes are only generated when written or read.
+*/
+  public CreateDummyFile2(long size, long seed)
+  {
+    this(size, null, true, seed);
+  }
+
+  public CreateDummyFile2(long size, byte[] pattern)
+  {
+    this(size, pattern, false, 0);
+    if ((pattern == null) || (pattern.length == 0))
+      throw new IllegalArgumentException("pattern must have at least one byte");
+  }
+
+  public CreateDummyFile2(long size, byte[] bytes, long seed)
+  {
+    this(size, bytes, true, seed);
+    if ((bytes == null) || (bytes.length == 0))
+      throw new IllegalArgumentException(
+        "random selection must have at least one byte");
+  }
+
+  CreateDummyFile2(long size, byte[] dataBytes, boolean randomFlag, long seed)
+  {
+    if (size < 0)
+      throw new IllegalArgumentException("size must not be negative: " + size);
+    this.data = new CreateDummyFile2Data(((dataBytes == null) ? null
+      : dataBytes.clone()), randomFlag, seed); // caller can't change our copy
+    this.size = size;
+  }
+
+
+/*
+  fill() method
+
+  Fill part of a caller's buffer with the bytes at a given offset, for any
+  offset, even past the end of our size.  Can be called by any number of
+  threads.
+*/
+  public void fill(byte[] buffer, int start, int length, long offset)
+  {
+    if ((start < 0) || (length < 0) || (length > (buffer.length - start))
+      || (offset < 0))
+    {
+      throw new IndexOutOfBoundsException("bad buffer range or offset");
+    }
+    data.fill(buffer, start, length, offset);
+
+  } // end of fill() method
+
+
+/*
+  addResumeHook() method
+
+  Add a shutdown hook that runs if Java is stopped while writing, such as by
+  Control-C, and reports how far we got.  Our writes aren't buffered by Java,
+  so everything written is already in the system's hands.  The hook does
+  nothing after writing is finished, or if writing stopped with an error.
+*/
+  static void addResumeHook(final String fileName)
+  {
+    Runtime.getRuntime().addShutdownHook(new Thread("CreateDummyFile2Hook")
+    {
+      public void run()
+      {
+        long position = writePosition; // read volatile variable once
+        if (position >= 0)        // still writing?
+        {
+          System.err.println();
+          System.err.println("Interrupted after writing "
+            + formatComma.format(position) + " bytes to " + fileName + ".");
+          System.err.println(
+            "Run again with the same options plus -resume to continue.");
+          System.err.flush();
+        }
+      }
+    });
+
+  } // end of addResumeHook() method
+
+
+/*
+  formatHex() method
+
+  Return a string with hexadecimal digits for an array of bytes, in lowercase,
+  the same as most checksum programs.
+*/
+  static String formatHex(byte[] input)
+  {
+    StringBuffer buffer;          // faster than String for multiple appends
+    int i;                        // index variable
+
+    buffer = new StringBuffer(input.length * 2);
+    for (i = 0; i < input.length; i ++)
+    {
+      buffer.append(Character.forDigit(((input[i] >> 4) & 0x0F), 16));
+      buffer.append(Character.forDigit((input[i] & 0x0F), 16));
+    }
+    return(buffer.toString());
+
+  } // end of formatHex() method
+
+
+/*
+  formatMegabytes() method
+
+  Return a string with the speed in megabytes per second, given a number of
+  bytes and the elapsed time in nanoseconds.  Used for reporting throughput.
+*/
+  static String formatMegabytes(long bytes, long nanos)
+  {
+    if (nanos <= 0)               // too fast to measure, or clock problem
+      return("?");
+    return(formatPointOne.format((bytes * 1e9)
+      / (nanos * (double) (1L << 20))));
+
+  } // end of formatMegabytes() method
+
+
+/*
+  formatReduction() method
+
+  Return a string with the compression and dedupe ratios achieved for a file
+  of a given size.  Dedupe is counted exactly.  Compression is measured on a
+  sample of blocks, each compressed by itself, as a storage array would.
+*/
+  static String formatReduction(CreateDummyFile2Data data, long fileSize)
+  {
+    long blocks;                  // total number of blocks in file
+    long unique;                  // number of different blocks in file
+
+    blocks = (fileSize + data.reduceBlock - 1) / data.reduceBlock;
+    unique = data.uniqueCount(fileSize);
+    return("Achieved " + formatPointOne.format(data.measureCompression(
+      fileSize)) + ":1 compression (Deflate) and " + formatPointOne.format(
+      (unique > 0) ? ((double) blocks / unique) : 1.0) + ":1 dedupe, with "
+      + formatComma.format(unique) + " unique of " + formatComma.format(blocks)
+      + " blocks of " + formatComma.format(data.reduceBlock) + " bytes.");
+
+  } // end of formatReduction() method
+
+
+/*
+  formatSummary() method
+
+  Return a string with the number of bytes, elapsed time, and speed, for
+  reporting how long it took to write a file.
+*/
+  static String formatSummary(long bytes, long nanos)
+  {
+    return(formatComma.format(bytes) + " bytes in "
+      + formatPointOne.format(nanos / 1e9) + " seconds ("
+      + formatMegabytes(bytes, nanos) + " MB/s)");
+
+  } // end of formatSummary() method
+
+
+/*
+  formatSync() method
+
+  Return a string with the time spent in sync calls, and the speed without
+  that time, after the "Created file" line.  When more than one thread calls
+  sync, the time is added over all threads and may be longer than the elapsed
+  time, so there is no speed without sync.
+*/
+  static String formatSync(long bytes, long nanos, int writers)
+  {
+    if (writers > 1)              // total thread time, not elapsed time
+    {
+      return("Spent " + formatPointOne.format(syncNanos / 1e9)
+        + " seconds in " + formatComma.format(syncCount)
+        + " sync calls, added over " + writers + " threads.");
+    }
+    return("Spent " + formatPointOne.format(syncNanos / 1e9) + " seconds in "
+      + formatComma.format(syncCount) + " sync calls ("
+      + formatMegabytes(bytes, (nanos - syncNanos)) + " MB/s without sync).");
+
+  } // end of formatSync() method
+
+
+/*
+  getBlockSize() method
+
+  Return the block size for the file store (file system) holding a file, or a
+  reasonable default if the file store doesn't know or can't be found.
+*/
+  static int getBlockSize(String fileName)
+  {
+    long result;                  // block size from file store
+
+    try                           // Java 10 or later, may not be supported
+    {
+      result = Files.getFileStore(Paths.get(fileName).toAbsolutePath()
+        .getParent()).getBlockSize();
+    }
+    catch (IOException ioe) { result = -1; }
+    catch (UnsupportedOperationException uoe) { result = -1; }
+    if ((result <= 0) || (result > BUFFER_SIZE)) // invalid or unreasonable
+      result = DEFAULT_BLOCK;
+    return((int) result);
+
+  } // end of getBlockSize() method
+
+
+/*
+  newBuffer() method
+
+  Allocate a buffer for writeStream() and the writeTo() methods, filled with
+  our pattern, if we have a pattern.
+*/
+  byte[] newBuffer()
+  {
+    byte[] buffer;                // new buffer
+
+    if (data.randomFlag)          // filled before each write
+      return(new byte[BUFFER_SIZE]);
+    buffer = new byte[BUFFER_SIZE + data.dataLength]; // extra pattern copy
+    data.fillPattern(buffer, buffer.length);
+    return(buffer);
+
+  } // end of newBuffer() method
+
+
+/*
+  newChannel() method
+
+  Return a channel that produces our bytes on demand, with end-of-file after
+  the size.  Nothing is written anywhere.
+*/
+  public ReadableByteChannel newChannel()
+  {
+    return(new CreateDummyFile2Source(data, size));
+
+  } // end of newChannel() method
+
+
+/*
+  newInputStream() method
+
+  Return an input stream that produces our bytes on demand.  Reads into a byte
+  array go directly into that array, without another copy.
+*/
+  public InputStream newInputStream()
+  {
+    return(Channels.newInputStream(newChannel()));
+
+  } // end of newInputStream() method
+
+
+/*
+  openStream() method
+
+  Create an output file, or return standard output if the file name is a
+  hyphen (-).  Standard output is opened on its file descriptor, so that big
+  buffers are written directly, not through the System.out print stream.
+  With -resume, append to the existing file instead.
+*/
+  static FileOutputStream openStream(String fileName)
+    throws FileNotFoundException
+  {
+    if (fileName.equals("-"))     // standard output
+      return(new FileOutputStream(FileDescriptor.out));
+    return(new FileOutputStream(fileName, (resumeOffset > 0))); // append?
+
+  } // end of openStream() method
+
+
+/*
+  otherOptions() method
+
+  Return true if the list of options that were given has any option that isn't
+  in the <allowed> list.  Options are named as in the help text, such as
+  "-regions#", and data options are not in either list.
+*/
+  static boolean otherOptions(ArrayList<String> givenOptions,
+    String... allowed)
+  {
+    return(Arrays.asList(allowed).containsAll(givenOptions) == false);
+
+  } // end of otherOptions() method
+
+
+/*
+  overwriteFile() method
+
+  Write over an existing file in place, without truncating it, once for each
+  pass, with one thread per region.  Each pass is forced to disk before the
+  next pass starts.  Print the speed for each pass and the totals on standard
+  output, and return true if all passes were written.
+*/
+  static boolean overwriteFile(
+    String fileName,              // name of existing file
+    ArrayList<CreateDummyFile2Data> passes, // data bytes for each pass
+    int regionCount)              // number of regions written in parallel
+  {
+    long bytesDone;               // number of bytes written by one pass
+    FileChannel channel;          // shared channel for positional writes
+    CreateDummyFile2Data data;    // data bytes for current pass
+    long elapsed;                 // elapsed time in nanoseconds
+    RandomAccessFile file;        // existing file opened for random access
+    long fileSize;                // size of existing file, which stays same
+    int i;                        // index variable
+    String label;                 // description of data for current pass
+    byte[] patternBuffer;         // constant pattern buffer, or null
+    long passStart;               // starting time of pass in nanoseconds
+    long startTime;               // starting time in nanoseconds
+    long totalBytes;              // number of bytes written by all passes
+
+    if (new File(fileName).isFile() == false) // "rw" would create a new file
+    {
+      System.err.println("File to overwrite not found: " + fileName);
+      return(false);
+    }
+
+    file = null;                  // file isn't open yet
+    totalBytes = 0;               // no bytes written so far
+    startTime = System.nanoTime(); // don't count parsing or preparation
+    try
+    {
+      file = new RandomAccessFile(fileName, "rw"); // doesn't truncate
+      channel = file.getChannel();
+      fileSize = file.length();
+      for (i = 0; i < passes.size(); i ++)
+      {
+        data = passes.get(i);
+        if (data.randomFlag)      // each region has its own buffer
+        {
+          label = (data.dataBytes == null) ? "pseudo-random"
+            : "random selection";
+          patternBuffer = null;
+        }
+        else                      // shared buffer with constant data
+        {
+          label = (data.dataLength > 8) ? ("pattern of "
+            + formatComma.format(data.dataLength) + " bytes")
+            : ("hex " + formatHex(data.dataBytes));
+          patternBuffer = new byte[BUFFER_SIZE + data.dataLength];
+          data.fillPattern(patternBuffer, patternBuffer.length);
+        }
+        passStart = System.nanoTime();
+        bytesDone = writeRegions(channel, fileSize, data, regionCount,
+          patternBuffer);
+        syncFile(channel, null);  // this pass must reach the disk
+        elapsed = System.nanoTime() - passStart;
+        totalBytes += bytesDone;
+        System.out.println("  Pass " + (i + 1) + " of " + passes.size() + " ("
+          + label + "): " + formatSummary(bytesDone, elapsed) + ".");
+      }
+      file.close();               // try to close existing file
+      file = null;                // closed, nothing left to do
+    }
+    catch (IOException ioe)
+    {
+      System.err.println("Error while overwriting file: " + ioe.getMessage());
+      return(false);
+    }
+    finally
+    {
+      if (file != null)           // still open after an error
+        try { file.close(); } catch (IOException ioe) { /* ignore */ }
+    }
+    elapsed = System.nanoTime() - startTime;
+    System.out.println("Overwrote file with " + formatSummary(totalBytes,
+      elapsed) + ".");
+    System.out.println(formatSync(totalBytes, elapsed, ((syncInterval > 0)
+      ? regionCount : 1)));       // always synced between passes
+    return(true);
+
+  } // end of overwriteFile() method
+
+
+/*
+  parseDecBytes() method
+
+  Convert decimal digits representing data bytes to real binary bytes.  Accept
+  almost any US-ASCII punctuation as a separator.  Return <null> if the input
+  has errors.
+*/
+  public static byte[] parseDecBytes(String input)
+  {
+    byte[] tempBytes;             // encoded (binary) data bytes
+    int tempCount;                // number of data bytes in <tempBytes>
+
+    tempBytes = new byte[input.length()]; // always more than what we need
+    if ((tempCount = parseDecBytes(input, tempBytes)) < 0)
+      return(null);
+    return((tempCount == tempBytes.length) ? tempBytes
+      : Arrays.copyOf(tempBytes, tempCount)); // truncate to correct length
+
+  } // end of parseDecBytes() method
+
+/*
+  Same as above, except that the bytes go into the caller's <output> array,
+  and nothing is allocated.  Return the number of bytes, or -1 if the input
+  has errors or the output array is too small.  An output array as long as the
+  input is always big enough.
+*/
+  public static int parseDecBytes(CharSequence input, byte[] output)
+  {
+    char ch;                      // one character from input string
+    int digitCount;               // number of digits found in current byte
+    int i;                        // index variable
+    int inputLength;              // number of characters in <input>
+    int outputCount;              // number of data bytes in <output>
+    int value;                    // one binary data byte as an integer
+
+    digitCount = 0;               // no digits found in current byte
+    inputLength = input.length(); // number of digits or spaces, etc
+    outputCount = 0;              // no binary data bytes found
+    value = 0;                    // no initial value for this data byte
+    for (i = 0; i < inputLength; i ++)
+    {
+      ch = input.charAt(i);       // get one digit, punctuation, other
+      if ((ch >= '0') && (ch <= '9')) // decimal digit?
+      {
+        value = (value * 10) + (ch - '0'); // shift old left, add new digit
+        digitCount ++;            // at least one digit found
+      }
+      else if (((ch >= 0x00) && (ch <= 0x2F)) // ASCII Unicode punctuation
+        || ((ch >= 0x3A) && (ch <= 0x40))
+        || ((ch >= 0x5B) && (ch <= 0x60))
+        || ((ch >= 0x7B) && (ch <= 0x7F))) // safe up to 0xBF
+      {
+        if (digitCount > 0) digitCount = 3; // accept one or two digits
+      }
+      else                        // draw the line at obviously bad input
+        return(-1);               // don't bother doing anything more
+
+      if ((digitCount >= 3)       // new binary byte every three digits
+        || ((digitCount > 0) && (i == (inputLength - 1)))) // or at the end
+      {
+        if ((value > BYTE_MASK)   // overflow (from 256 to 999)
+          || (outputCount >= output.length)) // no room in caller's array
+        {
+          return(-1);
+        }
+        output[outputCount ++] = (byte) value; // save one data byte
+        digitCount = value = 0;   // no partial data for next digit
+      }
+    }
+    return(outputCount);          // give caller number of bytes
+
+  } // end of parseDecBytes() method
+
+
+/*
+  parseFileSize() method
+
+  Given a string with a file size and suffix (KB, MB, GB, TB, etc), return the
+  size in bytes as a non-negative long integer.  Return -1 if the value is too
+  large or the string has poor syntax.  The size must be an integer (zero or
+  more) without commas or other digit grouping, followed by an optional suffix.
+  If no suffix is given, bytes are assumed.  Suffixes may be in uppercase or
+  lowercase, such as "k", "KB", or "KiB", and all are powers of two.
+
+  This method is called once per file in batch mode, and by other programs in
+  tight loops, so the syntax is checked one character at a time, instead of
+  with a regular expression, and nothing is allocated.
+*/
+  public static long parseFileSize(CharSequence input)
+  {
+    char ch;                      // one character from input string
+    int digit;                    // value of one decimal digit
+    int i;                        // index variable
+    int inputLength;              // number of characters in <input>
+    long number;                  // integer part before suffix
+    long scale;                   // scale factor for KB, MB, GB, etc
+
+    i = 0;                        // start at beginning of input
+    inputLength = input.length();
+    while ((i < inputLength) && Character.isWhitespace(input.charAt(i)))
+      i ++;                       // ignore leading white space
+
+    /* Parse integer number before any suffix.  At least one digit is needed,
+    and the number must fit in a long integer. */
+
+    if ((i >= inputLength) || (input.charAt(i) < '0')
+      || (input.charAt(i) > '9')) // need at least one digit
+    {
+      return(-1);
+    }
+    number = 0;
+    while ((i < inputLength) && ((ch = input.charAt(i)) >= '0') && (ch <= '9'))
+    {
+      digit = ch - '0';
+      if (number > ((Long.MAX_VALUE - digit) / 10)) // would overflow
+        return(-1);
+      number = (number * 10) + digit;
+      i ++;
+    }
+    while ((i < inputLength) && Character.isWhitespace(input.charAt(i)))
+      i ++;                       // white space between number and suffix
+
+    /* Convert suffix (if any) into a scale factor.  The first letter is the
+    size, and may be followed by "b" or "ib" (except after "b" itself). */
+
+    scale = 1;                    // size is in bytes, unless suffix says
+    if (i < inputLength)
+    {
+      ch = Character.toLowerCase(input.charAt(i ++));
+      if (ch == 'b') scale = 1;   // bytes
+      else if (ch == 'k') scale = 1L << 10; // kilobytes
+      else if (ch == 'm') scale = 1L << 20; // megabytes
+      else if (ch == 'g') scale = 1L << 30; // gigabytes
+      else if (ch == 't') scale = 1L << 40; // terabytes
+      else if (ch == 'p') scale = 1L << 50; // petabytes
+      else if (ch == 'e') scale = 1L << 60; // exabytes
+      else                        // unknown suffix
+        return(-1);
+
+      if ((ch != 'b') && (i < inputLength)
+        && (Character.toLowerCase(input.charAt(i)) == 'i'))
+      {
+        i ++;                     // "i" must be followed by "b"
+        if ((i >= inputLength)
+          || (Character.toLowerCase(input.charAt(i)) != 'b'))
+        {
+          return(-1);
+        }
+        i ++;
+      }
+      else if ((ch != 'b') && (i < inputLength)
+        && (Character.toLowerCase(input.charAt(i)) == 'b'))
+      {
+        i ++;                     // "b" after first letter
+      }
+    }
+    while ((i < inputLength) && Character.isWhitespace(input.charAt(i)))
+      i ++;                       // ignore trailing white space
+    if (i < inputLength)          // anything else is poor syntax
+      return(-1);
+
+    /* Multiply the two together if the result is within range. */
+
+    if (number > (Long.MAX_VALUE / scale))
+      return(-1);
+    return(number * scale);       // return our result (the file size)
+
+  } // end of parseFileSize() method
+
+
+/*
+  parseHexBytes() method
+
+  Convert hexadecimal characters representing data bytes to real binary bytes.
+  Accept almost any US-ASCII punctuation as a separator.  Return <null> if the
+  input has errors.
+*/
+  public static byte[] parseHexBytes(String input)
+  {
+    byte[] tempBytes;             // encoded (binary) data bytes
+    int tempCount;                // number of data bytes in <tempBytes>
+
+    tempBytes = new byte[input.length()]; // always more than what we need
+    if ((tempCount = parseHexBytes(input, tempBytes)) < 0)
+      return(null);
+    return((tempCount == tempBytes.length) ? tempBytes
+      : Arrays.copyOf(tempBytes, tempCount)); // truncate to correct length
+
+  } // end of parseHexBytes() method
+
+/*
+  Same as above, except that the bytes go into the caller's <output> array,
+  and nothing is allocated.  Return the number of bytes, or -1 if the input
+  has errors or the output array is too small.  An output array as long as the
+  input is always big enough.
+*/
+  public static int parseHexBytes(CharSequence input, byte[] output)
+  {
+    char ch;                      // one character from input string
+    int digitCount;               // number of digits found in current byte
+    int i;                        // index variable
+    int inputLength;              // number of characters in <input>
+    int outputCount;              // number of data bytes in <output>
+    int value;                    // one binary data byte as an integer
+
+    digitCount = 0;               // no digits found in current byte
+    inputLength = input.length(); // number of hex digits or spaces, etc
+    outputCount = 0;              // no binary data bytes found
+    value = 0;                    // no initial value for this data byte
+    for (i = 0; i < inputLength; i ++)
+    {
+      ch = input.charAt(i);       // get one hex digit, punctuation, other
+      if ((ch >= '0') && (ch <= '9')) // decimal digit?
+      {
+        value = (value << 4) + (ch - '0'); // shift old left, add new digit
+        digitCount ++;            // at least one digit found
+      }
+      else if ((ch >= 'A') && (ch <= 'F')) // uppercase hex digit?
+      {
+        value = (value << 4) + (ch - 'A' + 10);
+        digitCount ++;
+      }
+      else if ((ch >= 'a') && (ch <= 'f')) // lowercase hex digit?
+      {
+        value = (value << 4) + (ch - 'a' + 10);
+        digitCount ++;
+      }
+      else if (((ch >= 0x00) && (ch <= 0x2F)) // ASCII Unicode punctuation
+        || ((ch >= 0x3A) && (ch <= 0x40))
+        || ((ch >= 0x5B) && (ch <= 0x60))
+        || ((ch >= 0x7B) && (ch <= 0x7F))) // safe up to 0xBF
+      {
+        if (digitCount > 0) digitCount = 2; // accept a single digit
+      }
+      else                        // draw the line at obviously bad input
+        return(-1);               // don't bother doing anything more
+
+      if ((digitCount >= 2)       // new binary byte every two digits
+        || ((digitCount > 0) && (i == (inputLength - 1)))) // or at the end
+      {
+        if (outputCount >= output.length) // no room in caller's array
+          return(-1);
+        output[outputCount ++] = (byte) value; // save one data byte
+        digitCount = value = 0;   // no partial data for next digit
+      }
+    }
+    return(outputCount);          // give caller number of bytes
+
+  } // end of parseHexBytes() method
+
+
+/*
+  parsePass() method
+
+  Parse the data option for one pass of -overwrite, without its hyphen, such as
+  "z" or "h55" or "r".  Return the data bytes for that pass, or null if the
+  option isn't a data option or has bad data.
+*/
+  static CreateDummyFile2Data parsePass(String option, long randomSeed)
+  {
+    byte[] dataBytes;             // non-empty byte sequence, if not random
+    boolean randomFlag;           // true if we write pseudo-random data
+    String word;                  // option in lowercase
+
+    word = option.toLowerCase();
+    if (word.startsWith("d"))     // decimal data bytes
+    {
+      dataBytes = parseDecBytes(word.substring(1));
+      randomFlag = false;
+    }
+    else if (word.startsWith("h")) // hexadecimal data bytes
+    {
+      dataBytes = parseHexBytes(word.substring(1));
+      randomFlag = false;
+    }
+    else if (word.equals("o"))    // all ones
+    {
+      dataBytes = new byte[] {(byte) BYTE_MASK};
+      randomFlag = false;
+    }
+    else if (word.startsWith("p")) // text pattern, in local character set
+    {
+      dataBytes = option.substring(1).getBytes();
+      randomFlag = false;
+    }
+    else if (word.startsWith("r")) // random, or random selection
+    {
+      if ((dataBytes = parseHexBytes(word.substring(1))) == null)
+        return(null);
+      randomFlag = (dataBytes.length != 1); // not random if only one
+    }
+    else if (word.equals("z"))    // all zeros
+    {
+      dataBytes = new byte[] {(byte) 0};
+      randomFlag = false;
+    }
+    else                          // not a data option
+      return(null);
+
+    if ((randomFlag == false) && ((dataBytes == null)
+      || (dataBytes.length == 0))) // constant data needs at least one byte
+    {
+      return(null);
+    }
+    return(new CreateDummyFile2Data(dataBytes, randomFlag, randomSeed));
+
+  } // end of parsePass() method
+
+
+/*
+  parseRatio() method
+
+  Parse a ratio given as a decimal number, with an optional ":1" at the end,
+  such as "2.5" or "3:1".  Return -1 if the syntax is not correct.  Java's
+  Double.parseDouble() would also accept exponents, hex, and "NaN".
+*/
+  static double parseRatio(String text)
+  {
+    int i;                        // index variable
+    String number;                // text without the ":1" suffix
+
+    number = text.endsWith(":1") ? text.substring(0, (text.length() - 2))
+      : text;
+    if (number.length() == 0)     // need at least one digit
+      return(-1.0);
+    for (i = 0; i < number.length(); i ++)
+    {
+      if ((Character.isDigit(number.charAt(i)) == false)
+        && (number.charAt(i) != '.'))
+      {
+        return(-1.0);             // not a plain decimal number
+      }
+    }
+    try { return(Double.parseDouble(number)); }
+    catch (NumberFormatException nfe) { return(-1.0); } // such as "1.2.3"
+
+  } // end of parseRatio() method
+
+
+/*
+  runBatch() method
+
+  Create all files listed in a manifest file, or standard input if the name
+  is null or a hyphen (-), using a fixed number of threads.  Print the totals
+  on standard output, and return true if all files were created.
+*/
+  static boolean runBatch(
+    String manifestName,          // name of manifest file, or null
+    byte[] dataBytes,             // default data bytes, or null
+    boolean randomFlag,           // default for pseudo-random data
+    long randomSeed,              // base seed for pseudo-random data
+    int threadCount)              // number of files created in parallel
+  {
+    CreateDummyFile2Batch batch;  // shared state for all threads
+    long elapsed;                 // elapsed time in nanoseconds
+    int i;                        // index variable
+    BufferedReader reader;        // manifest file, or standard input
+    long startTime;               // starting time in nanoseconds
+    Thread[] threads;             // threads creating files
+
+    try                           // open manifest file
+    {
+      if ((manifestName == null) || manifestName.equals("-"))
+        reader = new BufferedReader(new InputStreamReader(System.in));
+      else
+        reader = new BufferedReader(new FileReader(manifestName));
+    }
+    catch (IOException ioe)
+    {
+      System.err.println("Can't open manifest file: " + ioe.getMessage());
+      return(false);
+    }
+
+    startTime = System.nanoTime();
+    batch = new CreateDummyFile2Batch(reader, dataBytes, randomFlag,
+      randomSeed);
+    threads = new Thread[threadCount];
+    for (i = 0; i < threadCount; i ++)
+    {
+      threads[i] = new Thread(batch, ("CreateDummyFile2Batch-" + i));
+      threads[i].start();
+    }
+    for (i = 0; i < threadCount; i ++)
+    {
+      try { threads[i].join(); }  // wait for this thread to finish
+      catch (InterruptedException ie) { /* ignore, not expected */ }
+    }
+    elapsed = System.nanoTime() - startTime;
+    try { reader.close(); } catch (IOException ioe) { /* ignore */ }
+
+    System.out.println("Created " + formatComma.format(batch.fileCount)
+      + " files with " + formatSummary(batch.bytesDone, elapsed) + ", "
+      + formatPointOne.format((elapsed > 0) ? (batch.fileCount * 1e9 / elapsed)
+      : 0.0) + " files/s.");
+    if (syncFlag)                 // time waiting for the disk
+      System.out.println(formatSync(batch.bytesDone, elapsed, threadCount));
+    if (batch.failCount > 0)
+      System.out.println("Failed to create " + formatComma.format(
+        batch.failCount) + " files.");
+    if (batch.readError != null)
+      System.out.println("Error while reading manifest file: "
+        + batch.readError.getMessage());
+    return((batch.failCount == 0) && (batch.readError == null));
+
+  } // end of runBatch() method
+
+
+/*
+  runTargets() method
+
+  Write several output files (targets) at once, each with its own thread.  See
+  the CreateDummyFile2Target class.  Print the speed for each target and the
+  totals on standard output, and return true if all targets were written.
+*/
+  static boolean runTargets(
+    ArrayList<String> targetNames, // names of files to be created
+    long fileSize,                // size of whole file, or each copy
+    long stripeSize,              // bytes per stripe, or zero for copies
+    CreateDummyFile2Data data,    // data bytes to be written
+    boolean directFlag,           // true if we bypass the file cache
+    int threadCount)              // worker threads for each target, or zero
+  {
+    long bytesDone;               // number of bytes written to all targets
+    int created;                  // number of targets without errors
+    long elapsed;                 // elapsed time in nanoseconds
+    boolean errorFlag;            // true if any target had an error
+    int i;                        // index variable
+    long startTime;               // starting time in nanoseconds
+    CreateDummyFile2Target[] targets; // one thread per target
+
+    targets = new CreateDummyFile2Target[targetNames.size()];
+    for (i = 0; i < targets.length; i ++)
+      targets[i] = new CreateDummyFile2Target(targetNames.get(i), i,
+        targets.length, fileSize, stripeSize, data, directFlag, threadCount);
+
+    startTime = System.nanoTime(); // don't count preparation
+    for (i = 0; i < targets.length; i ++)
+      targets[i].start();
+    for (i = 0; i < targets.length; i ++)
+    {
+      try { targets[i].join(); }  // wait for this target to finish
+      catch (InterruptedException ie) { /* ignore, not expected */ }
+    }
+    elapsed = System.nanoTime() - startTime;
+
+    bytesDone = 0;                // add totals from each target
+    created = 0;
+    errorFlag = false;            // no errors found so far
+    for (i = 0; i < targets.length; i ++)
+    {
+      bytesDone += targets[i].bytesDone;
+      if (targets[i].error != null)
+      {
+        System.err.println("Error while writing file: "
+          + targets[i].error.getMessage());
+        errorFlag = true;
+      }
+      else
+      {
+        System.out.println("  " + targets[i].fileName + ": "
+          + formatSummary(targets[i].bytesDone, targets[i].elapsed) + ".");
+        created ++;
+      }
+    }
+    System.out.println("Created " + formatComma.format(created) + " of "
+      + formatComma.format(targets.length) + " files with "
+      + formatSummary(bytesDone, elapsed) + ".");
+    if (syncFlag)                 // time waiting for the disk
+      System.out.println(formatSync(bytesDone, elapsed, targets.length));
+    return(errorFlag == false);
+
+  } // end of runTargets() method
+
+
+/*
+  runTree() method
+
+  Create a tree of directories and files, using a fixed number of threads.
+  Print the totals on standard output, and return true if all directories and
+  files were created.
+*/
+  static boolean runTree(
+    CreateDummyFile2Tree tree,    // shared state for all threads
+    int threadCount)              // number of files created in parallel
+  {
+    long elapsed;                 // elapsed time in nanoseconds
+    int i;                        // index variable
+    int pass;                     // zero for directories, one for files
+    long startTime;               // starting time in nanoseconds
+    Thread[] threads;             // threads creating directories or files
+    double threadTime;            // total thread time in nanoseconds
+
+    startTime = System.nanoTime();
+    threads = new Thread[threadCount];
+    for (pass = 0; pass < 2; pass ++) // directories first, then files
+    {
+      tree.directoryPhase = (pass == 0);
+      for (i = 0; i < threadCount; i ++)
+      {
+        threads[i] = new Thread(tree, ("CreateDummyFile2Tree-" + i));
+        threads[i].start();
+      }
+      for (i = 0; i < threadCount; i ++)
+      {
+        try { threads[i].join(); } // wait for this thread to finish
+        catch (InterruptedException ie) { /* ignore, not expected */ }
+      }
+      if (tree.failMessage != null) // no files without directories
+      {
+        System.out.println(tree.failMessage);
+        return(false);
+      }
+      if (pass == 0)
+      {
+        elapsed = System.nanoTime() - startTime;
+        System.out.println("Created " + formatComma.format(
+          CreateDummyFile2Tree.directoryCount(tree.depth, tree.fanout))
+          + " directories in " + formatPointOne.format(elapsed / 1e9)
+          + " seconds.");
+        startTime = System.nanoTime(); // files are timed separately
+      }
+    }
+    elapsed = System.nanoTime() - startTime;
+
+    System.out.println("Created " + formatComma.format(tree.filesDone)
+      + " files with " + formatSummary(tree.bytesDone, elapsed) + ", "
+      + formatPointOne.format((elapsed > 0) ? (tree.filesDone * 1e9 / elapsed)
+      : 0.0) + " files/s.");
+    threadTime = Math.max((tree.createNanos + tree.writeNanos), 1);
+    System.out.println("Thread time: " + formatPointOne.format(
+      tree.createNanos / 1e9) + " seconds creating files ("
+      + formatPointOne.format(tree.createNanos * 100.0 / threadTime)
+      + "%), " + formatPointOne.format(tree.writeNanos / 1e9)
+      + " seconds writing and closing (" + formatPointOne.format(
+      tree.writeNanos * 100.0 / threadTime) + "%).");
+    if (syncFlag)                 // time waiting for the disk
+      System.out.println(formatSync(tree.bytesDone, elapsed, threadCount));
+    if (tree.failCount > 0)
+      System.out.println("Failed to create " + formatComma.format(
+        tree.failCount) + " files.");
+    return(tree.failCount == 0);
+
+  } // end of runTree() method
+
+
+/*
+  showHelp() method
+
+  Show the help summary.  This is a UNIX standard and is expected for all
+  console applications, even very simple ones.
+*/
+  static void showHelp()
+  {
+    System.err.println();
+    System.err.println(PROGRAM_TITLE);
+    System.err.println();
+    System.err.println("This is a Java console application to create a file with a given size, and to");
+    System.err.println("fill the file with a repeating pattern or pseudo-random data.");
+    System.err.println();
+    System.err.println("  java  CreateDummyFile2  [options]  fileSize  fileName");
+    System.err.println();
+    System.err.println("Two parameters are required on the command line.  The first parameter must be");
+    System.err.println("the size of the file in bytes, as a decimal number, without commas or digit");
+    System.err.println("grouping.  Suffixes are recognized for kilobytes, megabytes, etc.  The second");
+    System.err.println("parameter is the output file name, or a hyphen (-) for standard output.  You");
+    System.err.println("may need to quote the name.  Options select which data values to write for");
+    System.err.println("the bytes:");
+    System.err.println();
+    System.err.println("  -d# = one or more decimal bytes from 000 to 255");
+    System.err.println("  -h# = one or more hexadecimal bytes from 00 to FF");
+    System.err.println("  -o = write all ones, 0xFF bytes");
+    System.err.println("  -p# = text pattern to repeat, in local character set");
+    System.err.println("  -r = write pseudo-random data (default)");
+    System.err.println("  -text# = lines of text from a template with fields, such as {n},{t},{r:1-9}");
+    System.err.println("  -z = write all zeros, 0x00 bytes");
+    System.err.println("  -zs = sparse file, set the size without writing any data");
+    System.err.println("  -zt = touch each file system block with one zero byte, to allocate space");
+    System.err.println();
+    System.err.println("Other options:");
+    System.err.println();
+    System.err.println("  -batch = create files listed in a manifest file, or standard input");
+    System.err.println("  -block# = block size for -compress# and -dedupe# (default 4k)");
+    System.err.println("  -burst# = bytes that may be written at once after a pause, such as 16m");
+    System.err.println("  -chunk# = digest each chunk of this size, such as 1m, for a hash tree");
+    System.err.println("  -compare = write file twice, with buffered and mapped output, and compare");
+    System.err.println("  -compress# = target compression ratio, such as 2 or 2.5 or 3:1");
+    System.err.println("  -crc = calculate CRC32C checksum for the whole file");
+    System.err.println("  -dedupe# = target dedupe ratio, such as 3 or 3:1");
+    System.err.println("  -depth# = levels of directories below the top for -tree (default 2)");
+    System.err.println("  -digest# = message digest for the whole file, such as -digestSHA-256");
+    System.err.println("  -direct = use direct I/O (Linux O_DIRECT) to bypass the file cache");
+    System.err.println("  -fanout# = directories in each directory for -tree (default 10)");
+    System.err.println("  -files# = total number of files for -tree (default 1000)");
+    System.err.println("  -json# = save final statistics in a JSON file with this name");
+    System.err.println("  -latency = show a histogram of the time taken by each write");
+    System.err.println("  -map = write file through memory-mapped windows of 1 GB each");
+    System.err.println("  -overwrite = write over an existing file, without truncating it");
+    System.err.println("  -passes# = data options for each -overwrite pass, such as z/o/r");
+    System.err.println("  -progress# = show progress every # seconds (default 10)");
+    System.err.println("  -rate# = bytes per second, such as 200m or 200m/s");
+    System.err.println("  -regions# = number of regions written in parallel (default 0 = none)");
+    System.err.println("  -resume = continue writing an existing file from where it stopped");
+    System.err.println("  -seed# = decimal seed for pseudo-random data (default is a random seed)");
+    System.err.println("  -stripe# = split the file size across -targets, in stripes of # bytes");
+    System.err.println("  -sum = save checksums in a file with \".sum\" added to the output file name");
+    System.err.println("  -sync# = force data and metadata to disk at end, and every # bytes if given");
+    System.err.println("  -syncdata# = force only data to disk at end, and every # bytes if given");
+    System.err.println("  -targets = write all file names after the file size, one thread for each");
+    System.err.println("  -threads# = number of threads generating random data (default 0 = none)");
+    System.err.println("  -tree = create a tree of directories and files, named by the file name");
+    System.err.println("  -verify = read and check an existing file, instead of creating a file");
+    System.err.println("  -writesize# = bytes per write, such as 64k, or 4k-1m for random sizes");
+    System.err.println();
+    System.err.println(COPYRIGHT_NOTICE);
+//  System.err.println();
+
+  } // end of showHelp() method
+
+
+/*
+  size() method
+
+  Return the number of bytes that will be written or read.
+*/
+  public long size()
+  {
+    return(size);
+
+  } // end of size() method
+
+
+/*
+  syncFile() method
+
+  Force data to disk, and add the time to the totals for sync calls.  Called by
+  any thread.  For a memory-mapped <window>, changes are forced through the
+  window, because FileChannel.force() doesn't promise to include them.
+*/
+  static void syncFile(FileChannel channel, MappedByteBuffer window)
+    throws IOException
+  {
+    long elapsed;                 // time in sync call, in nanoseconds
+    long startTime;               // starting time in nanoseconds
+
+    startTime = System.nanoTime();
+    if (window != null)           // memory-mapped window
+      window.force();
+    else                          // channel for file, with or without metadata
+      channel.force(syncMetadata);
+    elapsed = System.nanoTime() - startTime;
+    synchronized (CreateDummyFile2.class) // totals are shared by all threads
+    {
+      syncCount ++;
+      syncNanos += elapsed;
+    }
+
+  } // end of syncFile() method
+
+
+/*
+  verifyFile() method
+
+  Read an existing file and check it against the bytes we would write, with
+  one thread per region.  Print the result on standard output, and return true
+  if the file is correct, false if any bytes are different or if the file size
+  is wrong.  <patternBuffer> is the constant pattern buffer, or null for
+  pseudo-random data.
+*/
+  static boolean verifyFile(
+    String fileName,              // name of file to be checked
+    long fileSize,                // total number of bytes expected
+    CreateDummyFile2Data data,    // data bytes that should be there
+    int regionCount,              // number of regions read in parallel
+    byte[] patternBuffer)         // constant pattern buffer, or null
+    throws IOException
+  {
+    long blockCount;              // total number of blocks in the file
+    long bytesDone;               // number of bytes checked by all regions
+    FileChannel channel;          // shared channel for positional reads
+    long checkSize;               // number of bytes we can check
+    long elapsed;                 // elapsed time in nanoseconds
+    IOException error;            // first error from any region, or null
+    RandomAccessFile file;        // input file opened for random access
+    long firstOffset;             // offset of first difference, or -1
+    int i;                        // index variable
+    long length;                  // actual size of file in bytes
+    long mismatchCount;           // number of bytes that are different
+    CreateDummyFile2Verify[] regions; // one thread per region
+    long regionSize;              // number of bytes in each region (maximum)
+    long startTime;               // starting time in nanoseconds
+
+    startTime = System.nanoTime();
+    file = new RandomAccessFile(fileName, "r"); // try to open input file
+    channel = file.getChannel();
+    length = channel.size();      // actual size, which may be wrong
+    checkSize = Math.min(length, fileSize); // check what we can
+    blockCount = (checkSize + BUFFER_SIZE - 1) / BUFFER_SIZE;
+    regionSize = ((blockCount + regionCount - 1) / regionCount) * BUFFER_SIZE;
+    regions = new CreateDummyFile2Verify[regionCount];
+    for (i = 0; i < regionCount; i ++)
+    {
+      regions[i] = new CreateDummyFile2Verify(channel,
+        Math.min((i * regionSize), checkSize),
+        Math.min(((i + 1) * regionSize), checkSize), data, patternBuffer);
+      regions[i].start();
+    }
+
+    bytesDone = mismatchCount = 0; // nothing checked so far
+    error = null;                 // no errors found so far
+    firstOffset = -1;             // no differences found so far
+    for (i = 0; i < regionCount; i ++)
+    {
+      try { regions[i].join(); }  // wait for this region to finish
+      catch (InterruptedException ie)
+      {
+        throw new InterruptedIOException("interrupted while checking regions");
+      }
+      bytesDone += regions[i].bytesDone;
+      mismatchCount += regions[i].mismatchCount;
+      if ((firstOffset < 0) && (regions[i].firstOffset >= 0))
+        firstOffset = regions[i].firstOffset; // regions are in file order
+      if ((error == null) && (regions[i].error != null))
+        error = regions[i].error;
+    }
+    file.close();                 // try to close input file
+    if (error != null)
+      throw error;
+    elapsed = System.nanoTime() - startTime;
+
+    System.out.println("Checked file with " + formatSummary(bytesDone, elapsed)
+      + ".");
+    if (length != fileSize)
+      System.out.println("File size is " + formatComma.format(length)
+        + " bytes, expected " + formatComma.format(fileSize) + " bytes.");
+    if (mismatchCount > 0)
+      System.out.println("Found " + formatComma.format(mismatchCount)
+        + " bytes different, first at offset " + formatComma.format(firstOffset)
+        + ".");
+    else
+      System.out.println("No differences found.");
+    return((mismatchCount == 0) && (length == fileSize));
+
+  } // end of verifyFile() method
+
+
+/*
+  writeTo() methods
+
+  Write all of our bytes to a new file (replacing any old file), to an output
+  stream, or to a channel, and return the number of bytes written.  A file is
+  written through a channel from its own file system, and closed.  Streams and
+  channels from the caller are not closed.  Nothing here uses options from the
+  command line, so different objects can write at the same time.
+*/
+  public long writeTo(Path path) throws IOException
+  {
+    FileChannel channel;          // new file, opened for writing
+
+    channel = FileChannel.open(path, StandardOpenOption.CREATE,
+      StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    try { return(writeTo(channel)); }
+    finally { channel.close(); }  // also closed after an error
+
+  } // end of writeTo() method
+
+  public long writeTo(OutputStream out) throws IOException
+  {
+    byte[] buffer;                // our buffer, refilled if random
+    long bytesDone;               // number of bytes written so far
+    int k;                        // starting offset in our buffer
+    int thisSize;                 // number of bytes from current buffer
+
+    buffer = newBuffer();
+    bytesDone = 0;                // no bytes written so far
+    k = 0;                        // starting offset in our buffer
+    while (bytesDone < size)      // go until full size or I/O error
+    {
+      thisSize = (int) Math.min((size - bytesDone), BUFFER_SIZE);
+      if (data.randomFlag)        // random bytes or random selection?
+        data.fillRandom(buffer, 0, thisSize, bytesDone);
+      else                        // adjust offset to maintain pattern
+        k = (int) (bytesDone % data.dataLength);
+      out.write(buffer, k, thisSize);
+      bytesDone += thisSize;
+    }
+    out.flush();                  // caller may be waiting for the end
+    return(bytesDone);
+
+  } // end of writeTo() method
+
+  public long writeTo(WritableByteChannel channel) throws IOException
+  {
+    byte[] buffer;                // our buffer, refilled if random
+    long bytesDone;               // number of bytes written so far
+    int k;                        // starting offset in our buffer
+    int thisSize;                 // number of bytes from current buffer
+    ByteBuffer wrapper;           // NIO wrapper around <buffer>
+
+    buffer = newBuffer();
+    wrapper = ByteBuffer.wrap(buffer); // one wrapper, reused for each write
+    bytesDone = 0;                // no bytes written so far
+    k = 0;                        // starting offset in our buffer
+    while (bytesDone < size)      // go until full size or I/O error
+    {
+      thisSize = (int) Math.min((size - bytesDone), BUFFER_SIZE);
+      if (data.randomFlag)        // random bytes or random selection?
+        data.fillRandom(buffer, 0, thisSize, bytesDone);
+      else                        // adjust offset to maintain pattern
+        k = (int) (bytesDone % data.dataLength);
+      wrapper.clear();            // reset position and limit
+      wrapper.position(k);
+      wrapper.limit(k + thisSize);
+      while (wrapper.hasRemaining()) // channels may write partial buffers
+        channel.write(wrapper);   // non-blocking channels may spin here
+      bytesDone += thisSize;
+    }
+    return(bytesDone);
+
+  } // end of writeTo() method
+
+
+/*
+  writeDirect() method
+
+  Write the file in order with direct I/O, bypassing the system's file cache.
+  The same as writeStream(), except that data is copied from our buffer into a
+  direct ByteBuffer aligned on a file system block boundary, and each write
+  must be a multiple of the block size.  The last block is padded with
+  whatever is left in the buffer, then the file is truncated to the correct
+  size.  Return the number of bytes written.
+*/
+  static long writeDirect(
+    String fileName,              // name of file to be created
+    long fileSize,                // total number of bytes to be written
+    CreateDummyFile2Data data,    // data bytes to be written
+    byte[] buffer,                // our buffer, or null if <pipeline>
+    CreateDummyFile2Pipeline pipeline) // worker threads, or null if none
+    throws IOException
+  {
+    ByteBuffer aligned;           // direct buffer aligned on block boundary
+    int blockSize;                // file system block size
+    long bytesDone;               // number of bytes written so far
+    FileChannel channel;          // channel opened for direct I/O
+    int k;                        // starting offset in our buffer
+    long syncDone;                // number of bytes at last sync call
+    int thisSize;                 // number of bytes from current buffer
+    long writeStart;              // starting time of write in nanoseconds
+
+    blockSize = getBlockSize(fileName); // alignment for buffers and writes
+    if ((BUFFER_SIZE % blockSize) != 0) // should be a power of two
+      blockSize = DEFAULT_BLOCK;
+    aligned = ByteBuffer.allocateDirect(BUFFER_SIZE + blockSize)
+      .alignedSlice(blockSize);   // Java 9 or later
+    channel = FileChannel.open(Paths.get(fileName),
+      StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+      com.sun.nio.file.ExtendedOpenOption.DIRECT);
+    channel.truncate(resumeOffset); // zero, unless resuming
+    channel.position(resumeOffset);
+    if (pipeline != null) pipeline.start(); // start workers after file opens
+    bytesDone = syncDone = resumeOffset; // bytes written so far
+    k = 0;                        // starting offset in our buffer
+    while (bytesDone < fileSize)  // go until full size or I/O error
+    {
+      thisSize = (int) Math.min((fileSize - bytesDone), BUFFER_SIZE);
+      if (pipeline != null)       // next buffer filled by a worker thread
+        buffer = pipeline.take();
+      else if (data.randomFlag)   // random bytes or random selection?
+        data.fillRandom(buffer, 0, thisSize, bytesDone);
+      else                        // adjust offset to maintain pattern
+        k = (int) (bytesDone % data.dataLength);
+      aligned.clear();            // always copy a full buffer
+      aligned.put(buffer, k, BUFFER_SIZE);
+      aligned.flip();             // prepare to write from start of buffer
+      aligned.limit(((thisSize + blockSize - 1) / blockSize) * blockSize);
+      writeStart = System.nanoTime();
+      while (aligned.hasRemaining()) // channels may write partial buffers
+        channel.write(aligned);
+      if (stats != null)          // time for this write, and progress
+        stats.record((System.nanoTime() - writeStart), thisSize);
+      if (checksums != null)      // checksums on data before padding
+        checksums.update(buffer, k, thisSize);
+      bytesDone += thisSize;      // more bytes done, closer to the end
+      if (pipeline != null)       // return buffer to worker for refilling
+        pipeline.release(buffer);
+      writePosition = bytesDone;  // for shutdown hook
+      if ((syncInterval > 0) && ((bytesDone - syncDone) >= syncInterval))
+      {
+        syncFile(channel, null);  // force data and maybe metadata to disk
+        syncDone = bytesDone;
+      }
+    }
+    channel.truncate(fileSize);   // remove padding from last block
+    if (syncFlag) syncFile(channel, null); // includes truncated size
+    channel.close();              // try to close output file
+    return(bytesDone - resumeOffset); // bytes written by this run
+
+  } // end of writeDirect() method
+
+
+/*
+  writeMapped() method
+
+  Write the file through memory-mapped windows, copying from our buffer into
+  the pages of the file.  The file size is set first, because a mapped window
+  can't extend a file.  Each window is a multiple of our buffer size, so the
+  pattern offset is calculated the same way as for FileOutputStream.  Return
+  the number of bytes written.
+*/
+  static long writeMapped(
+    String fileName,              // name of file to be created
+    long fileSize,                // total number of bytes to be written
+    CreateDummyFile2Data data,    // data bytes to be written
+    byte[] buffer)                // our buffer, refilled if random
+    throws IOException
+  {
+    FileChannel channel;          // channel for mapping windows
+    RandomAccessFile file;        // output file opened for random access
+    int k;                        // starting offset in our buffer
+    long position;                // current file position for writing
+    long syncDone;                // number of bytes at last sync call
+    int thisSize;                 // number of bytes from current buffer
+    MappedByteBuffer window;      // current window into the file
+    long writeStart;              // starting time of write in nanoseconds
+
+    file = new RandomAccessFile(fileName, "rw"); // try to create output file
+    file.setLength(0);            // release old data, same as FileOutputStream
+    file.setLength(fileSize);     // mapped windows must be inside the file
+    channel = file.getChannel();
+    k = 0;                        // starting offset in our buffer
+    position = syncDone = 0;      // no bytes written so far
+    while (position < fileSize)   // go until full size or I/O error
+    {
+      window = channel.map(FileChannel.MapMode.READ_WRITE, position,
+        Math.min((fileSize - position), MAP_WINDOW));
+      while (window.hasRemaining()) // fill this window
+      {
+        thisSize = Math.min(window.remaining(), BUFFER_SIZE);
+        if (data.randomFlag)      // random bytes or random selection?
+          data.fillRandom(buffer, 0, thisSize, position);
+        else                      // adjust offset to maintain pattern
+          k = (int) (position % data.dataLength);
+        writeStart = System.nanoTime();
+        window.put(buffer, k, thisSize); // copy directly into file pages
+        if (stats != null)        // time for this copy, and progress
+          stats.record((System.nanoTime() - writeStart), thisSize);
+        if (checksums != null)    // checksums on each buffer as written
+          checksums.update(buffer, k, thisSize);
+        position += thisSize;
+        if ((syncInterval > 0) && ((position - syncDone) >= syncInterval))
+        {
+          syncFile(channel, window); // force pages written so far
+          syncDone = position;
+        }
+      }
+      if (syncFlag && (syncDone < position)) // rest of this window
+      {
+        syncFile(channel, window);
+        syncDone = position;
+      }
+    }
+    if (syncFlag) syncFile(channel, null); // metadata, such as file size
+    file.close();                 // try to close output file
+    return(position);             // give caller number of bytes written
+
+  } // end of writeMapped() method
+
+
+/*
+  writePaced() method
+
+  Write the file in order with a FileOutputStream, the same as writeStream(),
+  except that the <pacer> chooses the size of each write, and waits before each
+  write to keep the rate limit.  Buffers are filled before waiting, so that the
+  time to fill doesn't delay the write.  Return the number of bytes written.
+*/
+  static long writePaced(
+    String fileName,              // name of file to be created
+    long fileSize,                // total number of bytes to be written
+    CreateDummyFile2Data data,    // data bytes to be written
+    byte[] buffer,                // our buffer, replaced if too small
+    CreateDummyFile2Pacer pacer)  // rate limit and write sizes
+    throws IOException
+  {
+    long bytesDone;               // number of bytes written so far
+    int k;                        // starting offset in our buffer
+    FileOutputStream out;         // byte output stream for writing file
+    long syncDone;                // number of bytes at last sync call
+    int thisSize;                 // number of bytes from current buffer
+    long writeStart;              // starting time of write in nanoseconds
+    long writeTime;               // time taken by write in nanoseconds
+
+    if (buffer.length < (pacer.maxWrite + data.dataLength)) // big writes?
+    {
+      buffer = new byte[pacer.maxWrite + data.dataLength];
+      if (data.randomFlag == false) // constant data is only filled once
+        data.fillPattern(buffer, buffer.length);
+    }
+
+    out = openStream(fileName);   // try to create output file
+    pacer.start();                // rate limit starts with file open
+    bytesDone = syncDone = resumeOffset; // bytes written so far
+    k = 0;                        // starting offset in our buffer
+    while (bytesDone < fileSize)  // go until full size or I/O error
+    {
+      thisSize = pacer.nextSize(fileSize - bytesDone);
+      if (data.randomFlag)        // random bytes or random selection?
+        data.fillRandom(buffer, 0, thisSize, bytesDone);
+      else                        // adjust offset to maintain pattern
+        k = (int) (bytesDone % data.dataLength);
+      pacer.waitFor(thisSize);    // sleep until this write is allowed
+      writeStart = System.nanoTime();
+      out.write(buffer, k, thisSize); // write one piece of data
+      writeTime = System.nanoTime() - writeStart;
+      pacer.record(thisSize, writeTime);
+      if (stats != null)          // time for this write, and progress
+        stats.record(writeTime, thisSize);
+      if (checksums != null)      // checksums on each buffer as written
+        checksums.update(buffer, k, thisSize);
+      bytesDone += thisSize;      // more bytes done, closer to the end
+      writePosition = bytesDone;  // for shutdown hook
+      if ((syncInterval > 0) && ((bytesDone - syncDone) >= syncInterval))
+      {
+        syncFile(out.getChannel(), null); // force data to disk
+        syncDone = bytesDone;
+      }
+    }
+    if (syncFlag) syncFile(out.getChannel(), null); // before closing
+    out.close();                  // try to close output file
+    return(bytesDone - resumeOffset); // bytes written by this run
+
+  } // end of writePaced() method
+
+
+/*
+  writeRegions() method
+
+  Split the file into regions and write each region with its own thread, using
+  positional writes on a shared FileChannel.  Region boundaries are multiples
+  of our buffer size, so only the last region may be shorter than the others.
+  <patternBuffer> is the constant pattern buffer, or null for pseudo-random
+  data.  Return the number of bytes written, or throw the first I/O error found
+  by any region.  The first version creates (truncates) the file; the second
+  version writes to an open channel, such as an existing file for -overwrite.
+*/
+  static long writeRegions(
+    String fileName,              // name of file to be created
+    long fileSize,                // total number of bytes to be written
+    CreateDummyFile2Data data,    // data bytes to be written
+    int regionCount,              // number of regions written in parallel
+    byte[] patternBuffer)         // constant pattern buffer, or null
+    throws IOException
+  {
+    long bytesDone;               // number of bytes written by all regions
+    FileChannel channel;          // shared channel for positional writes
+    RandomAccessFile file;        // output file opened for random access
+
+    file = new RandomAccessFile(fileName, "rw"); // try to create output file
+    file.setLength(0);            // truncate, same as FileOutputStream
+    channel = file.getChannel();
+    try
+    {
+      bytesDone = writeRegions(channel, fileSize, data, regionCount,
+        patternBuffer);
+    }
+    catch (IOException ioe)
+    {
+      file.close();               // close file, and report first error
+      throw ioe;
+    }
+    if (syncFlag)                 // regions may sync along the way
+      syncFile(channel, null);
+    file.close();                 // try to close output file
+    return(bytesDone);            // give caller total number of bytes
+  }
+
+  static long writeRegions(
+    FileChannel channel,          // shared channel for positional writes
+    long fileSize,                // total number of bytes to be written
+    CreateDummyFile2Data data,    // data bytes to be written
+    int regionCount,              // number of regions written in parallel
+    byte[] patternBuffer)         // constant pattern buffer, or null
+    throws IOException
+  {
+    long blockCount;              // total number of blocks in the file
+    long bytesDone;               // number of bytes written by all regions
+    IOException error;            // first error from any region, or null
+    int i;                        // index variable
+    CreateDummyFile2Region[] regions; // one thread per region
+    long regionSize;              // number of bytes in each region (maximum)
+
+    blockCount = (fileSize + BUFFER_SIZE - 1) / BUFFER_SIZE;
+    regionSize = ((blockCount + regionCount - 1) / regionCount) * BUFFER_SIZE;
+    regions = new CreateDummyFile2Region[regionCount];
+    for (i = 0; i < regionCount; i ++)
+    {
+      regions[i] = new CreateDummyFile2Region(channel,
+        Math.min((i * regionSize), fileSize),
+        Math.min(((i + 1) * regionSize), fileSize), data, patternBuffer);
+      regions[i].start();
+    }
+
+    bytesDone = 0;                // no bytes written so far
+    error = null;                 // no errors found so far
+    for (i = 0; i < regionCount; i ++)
+    {
+      try { regions[i].join(); }  // wait for this region to finish
+      catch (InterruptedException ie)
+      {
+        throw new InterruptedIOException("interrupted while writing regions");
+      }
+      bytesDone += regions[i].bytesDone;
+      if ((error == null) && (regions[i].error != null))
+        error = regions[i].error; // remember first error, in file order
+    }
+    if (error != null)
+      throw error;
+    return(bytesDone);            // give caller total number of bytes
+
+  } // end of writeRegions() method
+
+
+/*
+  writeSparse() method
+
+  Create a file full of zeros by setting the file size, without writing data.
+  If <touchFlag> is true, then also write one zero byte at the start of each
+  file system block, so that space is allocated for the whole file.  Return
+  the number of bytes in the file.
+*/
+  static long writeSparse(String fileName, long fileSize, boolean touchFlag)
+    throws IOException
+  {
+    int blockSize;                // file system block size
+    FileChannel channel;          // channel for positional writes
+    RandomAccessFile file;        // output file opened for random access
+    long position;                // file position for next zero byte
+    ByteBuffer zero;              // one zero byte
+
+    file = new RandomAccessFile(fileName, "rw"); // try to create output file
+    file.setLength(0);            // release old data, same as FileOutputStream
+    file.setLength(fileSize);     // sparse on most UNIX file systems
+    if (touchFlag)                // force space to be allocated?
+    {
+      blockSize = getBlockSize(fileName);
+      channel = file.getChannel();
+      zero = ByteBuffer.allocate(1); // Java fills new buffers with zeros
+      for (position = 0; position < fileSize; position += blockSize)
+      {
+        zero.clear();             // reset position and limit
+        while (zero.hasRemaining()) // channels may write partial buffers
+          channel.write(zero, position);
+      }
+    }
+    if (syncFlag) syncFile(file.getChannel(), null); // size and blocks
+    file.close();                 // try to close output file
+    return(fileSize);             // all bytes are there, even if not written
+
+  } // end of writeSparse() method
+
+
+/*
+  writeStream() method
+
+  Write the file in order with a FileOutputStream.  BufferedOutputStream is
+  relatively slow for large files, so write our own big buffer directly,
+  reducing the last piece to fit the desired final size.  We use the same
+  buffer, over and over again, until we reach the user's desired size, or have
+  an I/O error.  With worker threads, buffers come from the <pipeline> instead,
+  and each buffer is given back to its worker for refilling after the write.
+  Buffers arrive in the same order as the file offsets.  Return the number of
+  bytes written.
+*/
+  static long writeStream(
+    String fileName,              // name of file to be created
+    long fileSize,                // total number of bytes to be written
+    CreateDummyFile2Data data,    // data bytes to be written
+    byte[] buffer,                // our buffer, or null if <pipeline>
+    CreateDummyFile2Pipeline pipeline) // worker threads, or null if none
+    throws IOException
+  {
+    long bytesDone;               // number of bytes written so far
+    int k;                        // starting offset in our buffer
+    FileOutputStream out;         // byte output stream for writing file
+    long syncDone;                // number of bytes at last sync call
+    int thisSize;                 // number of bytes from current buffer
+    long writeStart;              // starting time of write in nanoseconds
+
+    out = openStream(fileName);   // try to create output file
+    if (pipeline != null) pipeline.start(); // start workers after file opens
+    bytesDone = syncDone = resumeOffset; // bytes written so far
+    k = 0;                        // starting offset in our buffer
+    while (bytesDone < fileSize)  // go until full size or I/O error
+    {
+      thisSize = (int) Math.min((fileSize - bytesDone), BUFFER_SIZE);
+      if (pipeline != null)       // next buffer filled by a worker thread
+        buffer = pipeline.take();
+      else if (data.randomFlag)   // random bytes or random selection?
+        data.fillRandom(buffer, 0, thisSize, bytesDone);
+      else                        // adjust offset to maintain pattern
+        k = (int) (bytesDone % data.dataLength);
+      writeStart = System.nanoTime();
+      out.write(buffer, k, thisSize); // write up to one block of data
+      if (stats != null)          // time for this write, and progress
+        stats.record((System.nanoTime() - writeStart), thisSize);
+      if (checksums != null)      // checksums on each buffer as written
+        checksums.update(buffer, k, thisSize);
+      bytesDone += thisSize;      // more bytes done, closer to the end
+      if (pipeline != null)       // return buffer to worker for refilling
+        pipeline.release(buffer);
+      writePosition = bytesDone;  // for shutdown hook
+      if ((syncInterval > 0) && ((bytesDone - syncDone) >= syncInterval))
+      {
+        syncFile(out.getChannel(), null); // force data to disk
+        syncDone = bytesDone;
+      }
+    }
+    if (syncFlag) syncFile(out.getChannel(), null); // before closing
+    out.close();                  // try to close output file
+    return(bytesDone - resumeOffset); // bytes written by this run
+
+  } // end of writeStream() method
+
+} // end of CreateDummyFile2 class
+
+/*
+  CreateDummyFile2Batch class
+
+  Create files listed in a manifest, with the same Runnable object shared by
+  several threads.  Each thread takes the next line from the manifest, and has
+  its own buffer, which is reused for all files created by that thread.  An
+  error for one file is reported and counted, but doesn't stop other files.
+*/
+
+class CreateDummyFile2Batch implements Runnable
+{
+  /* instance variables */
+
+  long bytesDone;                 // total bytes in all files created
+  byte[] dataBytes;               // default data bytes, or null
+  int failCount;                  // number of files that failed
+  int fileCount;                  // number of files created
+  int lineNumber;                 // line number of last line read
+  boolean randomFlag;             // default for pseudo-random data
+  long randomSeed;                // base seed for pseudo-random data
+  IOException readError;          // error reading manifest, or null
+  BufferedReader reader;          // manifest file, or standard input
+
+/*
+  constructor
+*/
+  CreateDummyFile2Batch(BufferedReader reader, byte[] dataBytes,
+    boolean randomFlag, long randomSeed)
+  {
+    this.dataBytes = dataBytes;
+    this.randomFlag = randomFlag;
+    this.randomSeed = randomSeed;
+    this.reader = reader;
+    bytesDone = 0;                // nothing done yet
+    failCount = fileCount = lineNumber = 0;
+    readError = null;
+  }
+
+/*
+  createFile() method
+
+  Parse one line from the manifest, and create that file.  Return an error
+  message, or null if the file was created.  <buffers> has one element, our
+  thread's buffer, which is replaced if it's too small for this file.
+
+  Options are matched in lowercase, like main(), but a text pattern keeps the
+  user's case.  Double quotes group characters into one word, so a pattern can
+  have spaces, and two double quotes inside quotes are one quote character.
+  The quotes themselves are removed.  The file name isn't changed.
+*/
+  String createFile(String line, int number, byte[][] buffers)
+  {
+    byte[] buffer;                // our thread's buffer
+    long bytesWritten;            // number of bytes in this file
+    char ch;                      // one character from <line>
+    CreateDummyFile2Data data;    // data bytes for this file
+    byte[] dataBytes;             // data bytes from line, or default
+    int end;                      // index after end of current word
+    String fileName;              // name of file to be created
+    long fileSize;                // total number of bytes to be written
+    int i;                        // index into <line>
+    int lineLength;               // number of characters in <line>
+    boolean quoted;               // true while inside double quotes
+    boolean randomFlag;           // true if we write pseudo-random data
+    long randomSeed;              // seed for this file
+    String text;                  // one word, without quotes
+    String word;                  // same word in lowercase
+    StringBuilder wordBuffer;     // characters for one word
+
+    dataBytes = this.dataBytes;   // start with defaults from command line
+    fileSize = -1;                // no file size yet
+    randomFlag = this.randomFlag;
+    randomSeed = this.randomSeed + number; // different seed for each line
+    wordBuffer = new StringBuilder();
+
+    i = 0;                        // start at beginning of line
+    lineLength = line.length();
+    while (true)                  // options and file size, then file name
+    {
+      while ((i < lineLength) && Character.isWhitespace(line.charAt(i)))
+        i ++;                     // skip white space before each word
+      if (i >= lineLength)        // no file name after the file size?
+        return("missing file size or file name");
+      if (fileSize >= 0)          // file name is the rest of the line
+        break;
+
+      end = i;                    // find end of this word
+      quoted = false;
+      wordBuffer.setLength(0);
+      while ((end < lineLength) && (quoted
+        || (Character.isWhitespace(line.charAt(end)) == false)))
+      {
+        ch = line.charAt(end ++);
+        if (ch != '"')            // most characters are part of the word
+          wordBuffer.append(ch);
+        else if (quoted && (end < lineLength) && (line.charAt(end) == '"'))
+        {
+          wordBuffer.append(ch);  // two quotes inside quotes are one quote
+          end ++;
+        }
+        else                      // start or end of quoted characters
+          quoted = (quoted == false);
+      }
+      if (quoted)
+        return("missing closing double quote: " + line.substring(i));
+      text = wordBuffer.toString();
+      word = text.toLowerCase();  // easier to process if consistent case
+      i = end;
+
+      if (word.startsWith("-d") || (CreateDummyFile2.mswinFlag
+        && word.startsWith("/d"))) // decimal data bytes
+      {
+        if (((dataBytes = CreateDummyFile2.parseDecBytes(word.substring(2)))
+          == null) || (dataBytes.length == 0))
+        {
+          return("decimal byte data must be from 000 to 255: " + text);
+        }
+        randomFlag = false;
+      }
+      else if (word.startsWith("-h") || (CreateDummyFile2.mswinFlag
+        && word.startsWith("/h"))) // hexadecimal data bytes
+      {
+        if (((dataBytes = CreateDummyFile2.parseHexBytes(word.substring(2)))
+          == null) || (dataBytes.length == 0))
+        {
+          return("hexadecimal byte data must be from 00 to FF: " + text);
+        }
+        randomFlag = false;
+      }
+      else if (word.equals("-o") || (CreateDummyFile2.mswinFlag
+        && word.equals("/o"))) // all ones
+      {
+        dataBytes = new byte[] {(byte) CreateDummyFile2.BYTE_MASK};
+        randomFlag = false;
+      }
+      else if (word.startsWith("-p") || (CreateDummyFile2.mswinFlag
+        && word.startsWith("/p"))) // text pattern, in user's case
+      {
+        dataBytes = text.substring(2).getBytes(); // local character set
+        if (dataBytes.length == 0)
+        {
+          return("text pattern to repeat must have at least one byte: "
+            + text);
+        }
+        randomFlag = false;
+      }
+      else if (word.startsWith("-seed") || (CreateDummyFile2.mswinFlag
+        && word.startsWith("/seed"))) // seed for pseudo-random data
+      {
+        try { randomSeed = Long.parseLong(word.substring(5)); }
+        catch (NumberFormatException nfe)
+        {
+          return("random seed must be a decimal integer: " + text);
+        }
+      }
+      else if (word.startsWith("-r") || (CreateDummyFile2.mswinFlag
+        && word.startsWith("/r"))) // random, or random selection
+      {
+        if ((dataBytes = CreateDummyFile2.parseHexBytes(word.substring(2)))
+          == null)
+        {
+          return("random byte data must be hex from 00 to FF: " + text);
+        }
+        randomFlag = (dataBytes.length != 1); // not random if only one
+      }
+      else if (word.equals("-z") || (CreateDummyFile2.mswinFlag
+        && word.equals("/z"))) // all zeros
+      {
+        dataBytes = new byte[] {(byte) 0};
+        randomFlag = false;
+      }
+      else if (word.startsWith("-") || (CreateDummyFile2.mswinFlag
+        && word.startsWith("/")))
+      {
+        return("option not recognized: " + text);
+      }
+      else if ((fileSize = CreateDummyFile2.parseFileSize(word)) < 0)
+        return("file size must be a number of bytes: " + text);
+    }
+    fileName = line.substring(i).trim(); // may contain spaces
+
+    data = new CreateDummyFile2Data(dataBytes, randomFlag, randomSeed);
+    buffer = buffers[0];
+    if (buffer.length < (CreateDummyFile2.BUFFER_SIZE + data.dataLength))
+      buffer = buffers[0] = new byte[CreateDummyFile2.BUFFER_SIZE
+        + data.dataLength];       // bigger buffer for long pattern
+    if (data.randomFlag == false) // fill only what this file needs
+      data.fillPattern(buffer, ((int) Math.min(fileSize,
+        CreateDummyFile2.BUFFER_SIZE) + data.dataLength));
+    try
+    {
+      bytesWritten = CreateDummyFile2.writeStream(fileName, fileSize, data,
+        buffer, null);
+    }
+    catch (IOException ioe)
+    {
+      return(ioe.getMessage());
+    }
+    synchronized (this)           // totals are shared by all threads
+    {
+      bytesDone += bytesWritten;
+      fileCount ++;
+    }
+    return(null);                 // no errors
+  }
+
+/*
+  run() method
+
+  Create files from the manifest until there are no more lines.
+*/
+  public void run()
+  {
+    byte[][] buffers;             // our buffer, wrapped so it can grow
+    String line;                  // one line from manifest
+    String message;               // error message from createFile()
+    int number;                   // line number for <line>
+
+    buffers = new byte[][] {new byte[CreateDummyFile2.BUFFER_SIZE]};
+    while (true)
+    {
+      synchronized (this)         // lines and line numbers stay together
+      {
+        if (readError != null)    // another thread couldn't read
+          return;
+        try { line = reader.readLine(); }
+        catch (IOException ioe)
+        {
+          readError = ioe;        // report after all threads finish
+          return;
+        }
+        number = ++ lineNumber;
+      }
+      if (line == null)           // end of manifest file
+        return;
+      line = line.trim();
+      if ((line.length() == 0) || line.startsWith("#"))
+        continue;                 // blank line or comment
+      if ((message = createFile(line, number, buffers)) != null)
+      {
+        synchronized (this)       // counts are shared by all threads
+        {
+          failCount ++;
+          System.err.println("Line " + number + ": " + message);
+        }
+      }
+    }
+  }
+
+} // end of CreateDummyFile2Batch class
+
+/*
+  CreateDummyFile2Data class
+
+  The data bytes to be written: a repeating pattern, pseudo-random data, a
+  random selection from a list of bytes, or pseudo-random blocks with targets
+  for compression and dedupe, or lines of text from a template.  Everything is
+  set by the constructor and never changed, so one object can be shared by any
+  number of threads, and different files can have different data in the same
+  run.  (Text is the exception: lines must be made in order, so the text
+  generator remembers its position, and only one thread should use it.)
+*/
+
+class CreateDummyFile2Data
+{
+  /* constants */
+
+  static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+                                  // odd constant for counter-based generator
+  static final int REDUCE_BLOCK = 0x1000;
+                                  // default bytes per dedupe block (4 KB)
+  static final int REDUCE_CACHE = 0x800000;
+                                  // random bytes copied into blocks (8 MB)
+  static final int REDUCE_SAMPLE = 0x100000;
+                                  // bytes measured for compression (1 MB)
+  static final int SELECT_BLOCK = 0x1000;
+                                  // bytes per random selection block (4 KB)
+
+  /* instance variables */
+
+  double compressRatio;           // target compression ratio, or 1.0
+  byte[] dataBytes;               // non-empty byte sequence, if not random
+  int dataLength;                 // number of bytes in <dataBytes>
+  double dedupeRatio;             // target dedupe ratio, or 1.0
+  boolean randomFlag;             // true if we write pseudo-random data
+  long randomKey;                 // mixed seed for pseudo-random data
+  int reduceBlock;                // bytes per block for compress, dedupe
+  byte[] reduceCache;             // random bytes for blocks, or null
+  int reduceLength;               // header and random bytes in each block
+  int selectBits;                 // bits per chunk for random selection
+  long selectLimit;               // reject chunks this large or larger
+  byte[] selectTable;             // lookup table for random selection
+  CreateDummyFile2Text text;      // lines of text from template, or null
+
+/*
+  constructors
+
+  <dataBytes> is the pattern to repeat, or the list of bytes for a random
+  selection.  If <dataBytes> is null or empty, then the data is pseudo-random,
+  no matter what <randomFlag> says.  Ratios for compression and dedupe only
+  apply to pseudo-random data, and are ignored if both are 1.0.  Text is like
+  pseudo-random data, in that buffers are filled before each write.  A copy
+  with a new seed shares the lookup tables of the original, which are never
+  changed.
+*/
+  CreateDummyFile2Data(byte[] dataBytes, boolean randomFlag, long randomSeed)
+  {
+    this(dataBytes, randomFlag, randomSeed, 1.0, 1.0, REDUCE_BLOCK);
+  }
+
+  CreateDummyFile2Data(CreateDummyFile2Data shared, long randomSeed)
+  {
+    compressRatio = shared.compressRatio; // same data with a different seed
+    dataBytes = shared.dataBytes;
+    dataLength = shared.dataLength;
+    dedupeRatio = shared.dedupeRatio;
+    randomFlag = shared.randomFlag;
+    randomKey = mixBits(randomSeed);
+    reduceBlock = shared.reduceBlock;
+    reduceCache = shared.reduceCache; // tables are shared, not built again
+    reduceLength = shared.reduceLength;
+    selectBits = shared.selectBits;
+    selectLimit = shared.selectLimit;
+    selectTable = shared.selectTable;
+    text = shared.text;
+  }
+
+  CreateDummyFile2Data(CreateDummyFile2Text text)
+  {
+    this(null, true, 0, 1.0, 1.0, REDUCE_BLOCK);
+    this.text = text;
+  }
+
+  CreateDummyFile2Data(byte[] dataBytes, boolean randomFlag, long randomSeed,
+    double compressRatio, double dedupeRatio, int reduceBlock)
+  {
+    if ((dataBytes == null) || (dataBytes.length == 0))
+    {
+      this.dataBytes = null;      // set or reset
+      dataLength = 0;
+      this.randomFlag = true;
+    }
+    else
+    {
+      this.dataBytes = dataBytes;
+      dataLength = dataBytes.length; // this number will be positive (>0)
+      this.randomFlag = randomFlag;
+    }
+    randomKey = mixBits(randomSeed); // similar seeds give unrelated data
+    selectTable = null;           // only for random selection
+    text = null;                  // only for lines of text
+    if (this.randomFlag && (this.dataBytes != null))
+      prepareSelection();
+    this.compressRatio = Math.max(compressRatio, 1.0);
+    this.dedupeRatio = Math.max(dedupeRatio, 1.0);
+    this.reduceBlock = reduceBlock;
+    reduceCache = null;           // only for compression and dedupe
+    if (this.randomFlag && (this.dataBytes == null)
+      && ((this.compressRatio > 1.0) || (this.dedupeRatio > 1.0)))
+    {
+      prepareReduction();
+    }
+  }
+
+/*
+  fill() method
+
+  Fill part of a buffer with the bytes that belong at a given offset in the
+  file, for any kind of data.  Patterns are copied once, then doubled with
+  System.arraycopy(), which is faster than one byte at a time.
+*/
+  void fill(byte[] buffer, int start, int length, long offset)
+  {
+    int done;                     // number of bytes filled so far
+    int k;                        // index into pattern
+
+    if (randomFlag)               // pseudo-random or random selection
+    {
+      fillRandom(buffer, start, length, offset);
+      return;
+    }
+    k = (int) (offset % dataLength); // where file offset is in pattern
+    done = 0;
+    while ((done < length) && (done < dataLength)) // one copy of pattern
+    {
+      buffer[start + done] = dataBytes[k];
+      done ++;
+      if (++ k >= dataLength) k = 0;
+    }
+    while (done < length)         // copy whole copies of pattern
+    {
+      System.arraycopy(buffer, start, buffer, (start + done),
+        Math.min(done, (length - done)));
+      done += Math.min(done, (length - done));
+    }
+  }
+
+/*
+  fillPattern() method
+
+  Fill the start of a buffer with copies of the repeating pattern.  A buffer
+  for writing needs at least our buffer size plus the length of the pattern,
+  so that a full buffer can start at any offset in the pattern.
+*/
+  void fillPattern(byte[] buffer, int length)
+  {
+    int i;                        // index variable
+
+    for (i = 0; i < length; i ++)
+      buffer[i] = dataBytes[i % dataLength];
+  }
+
+
+/*
+  fillRandom() method
+
+  Fill part of a buffer with the pseudo-random data bytes that belong at a
+  given offset in the file, or with a random selection from the user's data
+  bytes.  Nothing is remembered between calls, so this can be called by any
+  number of threads, for any offset, in any order.
+
+  Data bytes are taken eight at a time from 64-bit words, in little-endian
+  order, where word number <n> covers file offsets from 8*n to 8*n+7.  Random
+  selections are explained in the fillSelection() method, compression and
+  dedupe in the fillReduced() method, and text in the CreateDummyFile2Text
+  class.
+*/
+  void fillRandom(
+    byte[] buffer,                // byte buffer to be filled
+    int start,                    // starting index in <buffer>
+    int length,                   // number of bytes to fill
+    long offset)                  // file offset for <buffer[start]>
+  {
+    int end;                      // index after last byte to be filled
+    int i, k;                     // index variables
+    long index;                   // word number for next 64-bit word
+    long word;                    // one 64-bit word of random bits
+
+    end = start + length;         // stop before this index
+    i = start;                    // start at beginning of caller's range
+    if (text != null)             // lines of text from a template
+    {
+      text.fill(buffer, start, length, offset);
+      return;
+    }
+    if (dataBytes != null)        // random selection from user's bytes
+    {
+      fillSelection(buffer, start, length, offset);
+      return;
+    }
+    if (reduceCache != null)      // compressible or duplicate blocks
+    {
+      fillReduced(buffer, start, length, offset);
+      return;
+    }
+
+    index = offset >>> 3;         // word number containing first byte
+    k = (int) (offset & 7);       // index of first byte inside that word
+    if (k != 0)                   // does first byte start inside a word?
+    {
+      word = randomWord(index ++) >>> (k << 3);
+      while ((k < 8) && (i < end))
+      {
+        buffer[i ++] = (byte) word;
+        word >>>= 8;
+        k ++;
+      }
+    }
+    while ((end - i) >= 8)        // all complete words in the middle
+    {
+      word = randomWord(index ++);
+      buffer[i] = (byte) word;
+      buffer[i + 1] = (byte) (word >>> 8);
+      buffer[i + 2] = (byte) (word >>> 16);
+      buffer[i + 3] = (byte) (word >>> 24);
+      buffer[i + 4] = (byte) (word >>> 32);
+      buffer[i + 5] = (byte) (word >>> 40);
+      buffer[i + 6] = (byte) (word >>> 48);
+      buffer[i + 7] = (byte) (word >>> 56);
+      i += 8;
+    }
+    if (i < end)                  // partial word at the end
+    {
+      word = randomWord(index);
+      while (i < end)
+      {
+        buffer[i ++] = (byte) word;
+        word >>>= 8;
+      }
+    }
+
+  } // end of fillRandom() method
+
+
+/*
+  fillBlock() method
+
+  Fill part of one block for compression and dedupe, given the block number in
+  the file, starting at <start> in the buffer with byte <skip> of the block.
+  The first eight bytes are a random key for the unique block, so no two unique
+  blocks are the same.  Then random bytes are copied from our cache, at an
+  offset chosen by the key, up to <reduceLength> bytes.  The rest of the block
+  is the last byte of the key, repeated, which any compression method can
+  shrink to almost nothing.  Each part comes straight from the key, so only
+  the bytes that the caller wants are made.
+*/
+  void fillBlock(
+    byte[] buffer,                // byte buffer to be filled
+    int start,                    // starting index in <buffer>
+    long block,                   // block number in file
+    int skip,                     // starting byte in block
+    int length)                   // number of bytes to fill
+  {
+    int end;                      // byte in block after last to be filled
+    int i;                        // byte in block for next to be filled
+    long key;                     // random key for unique block
+    int thisSize;                 // number of bytes copied from cache
+
+    end = skip + length;          // stop before this byte in block
+    i = skip;
+    key = reduceWord((uniqueBlock(block) << 1) + 1); // odd words for keys
+    while ((i < 8) && (i < end))  // key, in little-endian order
+    {
+      buffer[start + i - skip] = (byte) (key >>> (i << 3));
+      i ++;
+    }
+    if ((i < end) && (i < reduceLength)) // random bytes from our cache
+    {
+      thisSize = Math.min(end, reduceLength) - i;
+      System.arraycopy(reduceCache, ((int) ((key >>> 1) % (REDUCE_CACHE
+        - reduceLength + 9)) + i - 8), buffer, (start + i - skip), thisSize);
+      i += thisSize;
+    }
+    if (i < end)                  // repeated byte for the rest
+      Arrays.fill(buffer, (start + i - skip), (start + length),
+        (byte) (key >>> 56));
+
+  } // end of fillBlock() method
+
+
+/*
+  fillReduced() method
+
+  Fill part of a buffer with blocks for compression and dedupe.  The file is
+  divided into blocks of <reduceBlock> bytes, and each block is calculated
+  from its block number, like other pseudo-random data, so this can be called
+  by any number of threads, for any offset, in any order.  All blocks are
+  filled in place, including a partial block at either end, so nothing is
+  allocated, and no bytes are made only to be thrown away.
+*/
+  void fillReduced(
+    byte[] buffer,                // byte buffer to be filled
+    int start,                    // starting index in <buffer>
+    int length,                   // number of bytes to fill
+    long offset)                  // file offset for <buffer[start]>
+  {
+    long block;                   // block number for current block
+    int done;                     // number of bytes filled so far
+    int skip;                     // bytes before caller's offset in block
+    int thisSize;                 // number of bytes from current block
+
+    block = offset / reduceBlock; // block containing first byte
+    done = 0;                     // nothing filled yet
+    skip = (int) (offset % reduceBlock); // only for first block
+    while (done < length)
+    {
+      thisSize = Math.min((reduceBlock - skip), (length - done));
+      fillBlock(buffer, (start + done), block, skip, thisSize);
+      block ++;
+      done += thisSize;
+      skip = 0;
+    }
+
+  } // end of fillReduced() method
+
+
+/*
+  fillSelection() method
+
+  Fill part of a buffer with a random selection from the user's data bytes,
+  where duplicate bytes count as weights.  Each 64-bit random word is cut into
+  chunks of <selectBits> bits, and each chunk below <selectLimit> selects one
+  byte from <selectTable>, which has an equal number of copies of the user's
+  list.  Larger chunks are rejected, so the selection is exact, with no bias.
+  For lists up to 256 bytes, that's eight selections per word, and at least
+  half of all chunks are accepted.
+
+  Since the number of rejected chunks can't be known in advance, the file is
+  divided into blocks of SELECT_BLOCK bytes, and each block has its own stream
+  of random words, keyed by the block number.  An offset inside a block is
+  found by generating and discarding the earlier bytes of the block.
+*/
+  void fillSelection(
+    byte[] buffer,                // byte buffer to be filled
+    int start,                    // starting index in <buffer>
+    int length,                   // number of bytes to fill
+    long offset)                  // file offset for <buffer[start]>
+  {
+    long block;                   // block number for current block
+    long chunk;                   // one chunk of random bits
+    long counter;                 // word number inside current block
+    int end;                      // index after last byte to be filled
+    int i, k;                     // index variables
+    long key;                     // random key for current block
+    long mask;                    // mask for one chunk of random bits
+    int skip;                     // selections to discard from block start
+    int stop;                     // index after last byte from this block
+    long word;                    // one 64-bit word of random bits
+
+    block = offset / SELECT_BLOCK; // block containing first byte
+    end = start + length;         // stop before this index
+    i = start;                    // start at beginning of caller's range
+    mask = (1L << selectBits) - 1; // 8, 16, or 32 bits
+    skip = (int) (offset % SELECT_BLOCK); // only for first block
+    while (i < end)
+    {
+      counter = 0;                // start new stream for each block
+      key = randomWord(block ++);
+      stop = i + Math.min((SELECT_BLOCK - skip), (end - i));
+      while (i < stop)
+      {
+        word = mixBits(key + ((++ counter) * GOLDEN_GAMMA));
+        if ((skip == 0) && (selectBits == 8) && ((stop - i) >= 8))
+        {
+          /* Usual case, unrolled: up to eight selections from a short list,
+          with at least eight bytes left to fill in this block. */
+
+          for (k = 0; k < 8; k ++)
+          {
+            chunk = word & 0xFF;
+            word >>>= 8;
+            if (chunk < selectLimit) // reject to avoid bias
+              buffer[i ++] = selectTable[(int) chunk];
+          }
+          continue;               // next random word
+        }
+        for (k = 64 / selectBits; (k > 0) && (i < stop); k --)
+        {
+          chunk = word & mask;
+          word >>>= selectBits;
+          if (chunk >= selectLimit) // reject to avoid bias
+            continue;
+          else if (skip > 0)      // discard bytes before caller's offset
+            skip --;
+          else if (selectTable != null) // usual case: small list of bytes
+            buffer[i ++] = selectTable[(int) chunk];
+          else                    // very long list, no lookup table
+            buffer[i ++] = dataBytes[(int) (chunk % dataLength)];
+        }
+      }
+    }
+
+  } // end of fillSelection() method
+
+
+/*
+  measureCompression() method
+
+  Compress a sample of blocks from the start of a file with a given size, each
+  block by itself, and return the compression ratio.  Deflate (zlib) at its
+  fastest level is the kind of compression done by many storage arrays.
+*/
+  double measureCompression(long size)
+  {
+    long block;                   // block number for current block
+    long count;                   // number of blocks in sample
+    java.util.zip.Deflater deflater; // compressor for each block
+    byte[] input;                 // one block to be compressed
+    byte[] output;                // compressed bytes, discarded
+    long packed;                  // total bytes after compression
+
+    count = Math.max(1, Math.min(((size + reduceBlock - 1) / reduceBlock),
+      (REDUCE_SAMPLE / reduceBlock))); // at least one block
+    deflater = new java.util.zip.Deflater(java.util.zip.Deflater.BEST_SPEED,
+      true);                      // raw data without zlib header
+    input = new byte[reduceBlock];
+    output = new byte[reduceBlock];
+    packed = 0;
+    for (block = 0; block < count; block ++)
+    {
+      fillBlock(input, 0, block, 0, reduceBlock);
+      deflater.reset();
+      deflater.setInput(input);
+      deflater.finish();
+      while (deflater.finished() == false)
+        packed += deflater.deflate(output);
+    }
+    deflater.end();               // release native memory
+    return((count * reduceBlock) / (double) Math.max(packed, 1));
+
+  } // end of measureCompression() method
+
+
+/*
+  mixBits() method
+
+  Scramble the bits in a 64-bit integer, so that similar inputs give unrelated
+  outputs.  This is the finalizer from the SplitMix64 generator (Steele, Lea,
+  and Flood, 2014), which passes the BigCrush statistical tests when applied to
+  a counter.
+*/
+  static long mixBits(long value)
+  {
+    value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+    value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+    return(value ^ (value >>> 31));
+
+  } // end of mixBits() method
+
+
+/*
+  prepareReduction() method
+
+  Fill the cache of random bytes for compression and dedupe, and calculate how
+  many bytes of each block are not compressible.  See the fillBlock() method.
+*/
+  void prepareReduction()
+  {
+    byte[] cache;                 // random bytes to be copied into blocks
+
+    reduceLength = (int) Math.max(8, Math.min(reduceBlock,
+      Math.round(reduceBlock / compressRatio))); // at least the key
+    cache = new byte[REDUCE_CACHE];
+    fillRandom(cache, 0, REDUCE_CACHE, 0); // before <reduceCache> is set
+    reduceCache = cache;
+
+  } // end of prepareReduction() method
+
+
+/*
+  prepareSelection() method
+
+  Build the lookup table for random selection from the user's data bytes.  See
+  the fillSelection() method.  Chunks of 8 bits are used for up to 256 bytes,
+  16 bits for up to 65,536 bytes, and 32 bits without a table for more.
+*/
+  void prepareSelection()
+  {
+    int i;                        // index variable
+
+    if (dataLength <= 0x100)      // most common case: a short list
+      selectBits = 8;
+    else if (dataLength <= 0x10000) // not as common, still reasonable
+      selectBits = 16;
+    else                          // very long lists aren't worth a table
+      selectBits = 32;
+    selectLimit = ((1L << selectBits) / dataLength) * dataLength;
+    if (selectBits < 32)
+    {
+      selectTable = new byte[(int) selectLimit]; // whole copies of list
+      for (i = 0; i < selectTable.length; i ++)
+        selectTable[i] = dataBytes[i % dataLength];
+    }
+    else
+      selectTable = null;         // use remainder from division instead
+
+  } // end of prepareSelection() method
+
+
+/*
+  randomWord() method
+
+  Return the 64-bit pseudo-random word with a given word number, for our
+  seed.
+*/
+  long randomWord(long index)
+  {
+    return(mixBits(randomKey + ((index + 1) * GOLDEN_GAMMA)));
+
+  } // end of randomWord() method
+
+
+/*
+  reduceWord() method
+
+  Return a 64-bit pseudo-random word for compression and dedupe.  These words
+  count down from our seed, while randomWord() counts up, so they never repeat
+  the words in our cache.
+*/
+  long reduceWord(long index)
+  {
+    return(mixBits(randomKey - ((index + 1) * GOLDEN_GAMMA)));
+
+  } // end of reduceWord() method
+
+
+/*
+  uniqueBlock() method
+
+  Return the unique block number for a given block number in the file.  Unique
+  block <u> first appears at block number <u> times the dedupe ratio, rounded
+  up.  Blocks in between repeat an earlier unique block, chosen at random, so
+  dedupe can't depend on a regular pattern.  Without dedupe, every block is
+  unique.
+*/
+  long uniqueBlock(long block)
+  {
+    long newest;                  // newest unique block number so far
+
+    if (dedupeRatio <= 1.0)       // every block is different
+      return(block);
+    newest = (long) (block / dedupeRatio);
+    if ((block == 0) || (newest != (long) ((block - 1) / dedupeRatio)))
+      return(newest);             // first appearance of a new unique block
+    return(Long.remainderUnsigned(reduceWord(block << 1), (newest + 1)));
+
+  } // end of uniqueBlock() method
+
+
+/*
+  uniqueCount() method
+
+  Return the number of unique blocks in a file with a given size.  See the
+  uniqueBlock() method.
+*/
+  long uniqueCount(long size)
+  {
+    long blocks;                  // total number of blocks in file
+
+    blocks = (size + reduceBlock - 1) / reduceBlock;
+    if (blocks <= 0)              // empty file has no blocks
+      return(0);
+    return(((long) ((blocks - 1) / dedupeRatio)) + 1);
+
+  } // end of uniqueCount() method
+
+
+} // end of CreateDummyFile2Data class
+
+/*
+  CreateDummyFile2Digest class
+
+  Checksums and message digests calculated from each buffer as it is written.
+  Chunk digests are written to the ".sum" file as each chunk is finished, so
+  that memory doesn't grow with the size of the output file, and are combined
+  into a root digest: the digest of all chunk digests in order.
+*/
+
+class CreateDummyFile2Digest
+{
+  /* instance variables */
+
+  long bytesDone;                 // number of bytes given to update()
+  int chunkCount;                 // number of chunks finished
+  MessageDigest chunkDigest;      // digest for current chunk, or null
+  long chunkDone;                 // number of bytes in current chunk
+  long chunkSize;                 // bytes per chunk digest, or zero
+  java.util.zip.Checksum crc;     // CRC32C checksum, or null
+  MessageDigest fileDigest;       // digest for whole file, or null
+  String fileName;                // name of file being written
+  MessageDigest rootDigest;       // digest of chunk digests, or null
+  PrintWriter sumWriter;          // ".sum" file with checksums, or null
+
+/*
+  constructor
+
+  Throws an IOException if the ".sum" file can't be created, or if a digest
+  algorithm is not found.
+*/
+  CreateDummyFile2Digest(
+    boolean crcFlag,              // true if we calculate CRC32C checksum
+    String digestName,            // message digest algorithm, or null
+    long chunkSize,               // bytes per chunk digest, or zero
+    String sumName,               // name of ".sum" file, or null
+    String fileName)              // name of file being written
+    throws IOException
+  {
+    bytesDone = chunkCount = 0;   // nothing done yet
+    chunkDone = 0;
+    this.chunkSize = chunkSize;
+    this.fileName = fileName;
+    crc = crcFlag ? new java.util.zip.CRC32C() : null; // Java 9 or later
+    try
+    {
+      fileDigest = (digestName != null) ? MessageDigest.getInstance(digestName)
+        : null;
+      chunkDigest = rootDigest = null;
+      if (chunkSize > 0)          // do we want chunk digests?
+      {
+        chunkDigest = MessageDigest.getInstance((digestName != null)
+          ? digestName : CreateDummyFile2.CHUNK_DIGEST);
+        rootDigest = MessageDigest.getInstance(chunkDigest.getAlgorithm());
+      }
+    }
+    catch (NoSuchAlgorithmException nsae)
+    {
+      throw new IOException("message digest not found: " + nsae.getMessage());
+    }
+
+    if (sumName != null)          // create ".sum" file before writing data
+    {
+      sumWriter = new PrintWriter(new BufferedWriter(new FileWriter(sumName)));
+      sumWriter.println("# checksums for file " + fileName);
+      if (chunkSize > 0)
+        sumWriter.println("chunk-size " + chunkSize + " "
+          + chunkDigest.getAlgorithm());
+    }
+    else
+      sumWriter = null;
+  }
+
+/*
+  finish() method
+
+  Finish the last chunk (if any), print all checksums on standard output, and
+  save them in the ".sum" file.  Throws an IOException if the ".sum" file had
+  any errors.
+*/
+  void finish() throws IOException
+  {
+    if ((chunkDigest != null) && (chunkDone > 0)) // partial last chunk?
+      finishChunk();
+
+    report("size", Long.toString(bytesDone), null);
+    if (crc != null)
+      report("CRC32C", String.format("%08x", crc.getValue()),
+        "CRC32C checksum");
+    if (fileDigest != null)
+      report(fileDigest.getAlgorithm(),
+        CreateDummyFile2.formatHex(fileDigest.digest()),
+        (fileDigest.getAlgorithm() + " digest"));
+    if (rootDigest != null)
+      report("root", CreateDummyFile2.formatHex(rootDigest.digest()),
+        (chunkDigest.getAlgorithm() + " root digest of "
+        + CreateDummyFile2.formatComma.format(chunkCount) + " chunks"));
+
+    if (sumWriter != null)
+    {
+      sumWriter.close();          // PrintWriter doesn't throw exceptions
+      if (sumWriter.checkError())
+        throw new IOException("can't write checksums to .sum file");
+    }
+  }
+
+/*
+  finishChunk() method
+
+  Finish the digest for the current chunk, add it to the root digest, and save
+  it in the ".sum" file with the chunk number and starting offset.
+*/
+  void finishChunk()
+  {
+    byte[] digest;                // digest for current chunk
+
+    digest = chunkDigest.digest(); // also resets for next chunk
+    rootDigest.update(digest);
+    sumWriter.println("chunk " + chunkCount + " " + (chunkCount * chunkSize)
+      + " " + CreateDummyFile2.formatHex(digest));
+    chunkCount ++;
+    chunkDone = 0;
+  }
+
+/*
+  report() method
+
+  Print one checksum on standard output (if <label> is not null), and save it
+  in the ".sum" file with a keyword (if there is a ".sum" file).
+*/
+  void report(String keyword, String value, String label)
+  {
+    if (label != null)
+      System.out.println(label + ": " + value);
+    if (sumWriter != null)
+      sumWriter.println(keyword + " " + value);
+  }
+
+/*
+  update() method
+
+  Add bytes from one buffer to all checksums and digests, splitting the bytes
+  at chunk boundaries.
+*/
+  void update(byte[] buffer, int start, int length)
+  {
+    int thisSize;                 // number of bytes for current chunk
+
+    bytesDone += length;
+    if (crc != null) crc.update(buffer, start, length);
+    if (fileDigest != null) fileDigest.update(buffer, start, length);
+    while ((chunkDigest != null) && (length > 0))
+    {
+      thisSize = (int) Math.min(length, (chunkSize - chunkDone));
+      chunkDigest.update(buffer, start, thisSize);
+      chunkDone += thisSize;
+      start += thisSize;
+      length -= thisSize;
+      if (chunkDone >= chunkSize) // is this chunk complete?
+        finishChunk();
+    }
+  }
+
+} // end of CreateDummyFile2Digest class
+
+/*
+  CreateDummyFile2Pacer class
+
+  Rate limit and write sizes for writePaced().  The rate limit is a token
+  bucket, kept as the time when the bucket will be full again (the "theoretical
+  arrival time"), so there is no counter to refill and no rounding error that
+  grows over hours.  Before each write, we sleep until there would be enough
+  tokens for that write.  If the bucket is ever full, the time since it filled
+  is lost, and counted as being behind schedule.  Sleeping is done with
+  LockSupport.parkNanos(), which returns early or late but never spins.
+*/
+
+class CreateDummyFile2Pacer
+{
+  /* constants */
+
+  static final int MAX_WRITE = 0x4000000; // largest write size (64 MB)
+
+  /* instance variables */
+
+  long behindCount;               // number of times we fell behind
+  long behindNanos;               // total time lost by falling behind
+  long burstNanos;                // time to earn <burstSize> tokens
+  long burstSize;                 // size of token bucket in bytes
+  double fullTime;                // nanoseconds when bucket will be full
+  long lateMax;                   // latest wake-up after sleeping
+  long lateTotal;                 // total time late after sleeping
+  int maxWrite;                   // largest write size in bytes
+  int minWrite;                   // smallest write size in bytes
+  double nanosPerByte;            // time to earn one token, or zero
+  java.util.Random random;        // random write sizes, if wanted
+  long rateLimit;                 // bytes per second, or zero for no limit
+  long sleepCount;                // number of times we slept
+  long slowCount;                 // writes longer than their share of time
+  long writeCount;                // number of writes recorded
+
+/*
+  constructor
+
+  The default burst size is 1/10 second of data, or two of the largest writes,
+  whichever is larger, so that the rate is kept even when sleeping is late.
+*/
+  CreateDummyFile2Pacer(long rateLimit, long burstSize, int minWrite,
+    int maxWrite)
+  {
+    behindCount = behindNanos = lateMax = lateTotal = 0;
+    sleepCount = slowCount = writeCount = 0;
+    this.maxWrite = maxWrite;
+    this.minWrite = minWrite;
+    random = (minWrite < maxWrite) ? new java.util.Random() : null;
+    this.rateLimit = rateLimit;
+    this.burstSize = (burstSize > 0) ? burstSize : Math.max((rateLimit / 10),
+      (2L * maxWrite));
+    nanosPerByte = (rateLimit > 0) ? (1e9 / rateLimit) : 0.0;
+    burstNanos = (long) (this.burstSize * nanosPerByte);
+    fullTime = System.nanoTime(); // start with a full bucket
+  }
+
+/*
+  nextSize() method
+
+  Return the size of the next write, not more than the bytes remaining.
+*/
+  int nextSize(long remaining)
+  {
+    int size;                     // chosen size of next write
+
+    size = (random == null) ? maxWrite
+      : (minWrite + random.nextInt(maxWrite - minWrite + 1));
+    return((int) Math.min(size, remaining));
+  }
+
+/*
+  record() method
+
+  Count one write, and whether it took longer than its share of time.
+*/
+  void record(int size, long writeTime)
+  {
+    if ((nanosPerByte > 0) && (writeTime > (size * nanosPerByte)))
+      slowCount ++;
+    writeCount ++;
+  }
+
+/*
+  report() method
+
+  Print how close the actual rate was to the target, and why it was different.
+*/
+  void report(long bytes, long elapsed)
+  {
+    double actual;                // actual bytes per second
+
+    actual = (elapsed > 0) ? (bytes * 1e9 / elapsed) : 0.0;
+    System.out.println("Rate limit " + CreateDummyFile2.formatPointOne.format(
+      rateLimit / (double) (1L << 20)) + " MB/s, actual "
+      + CreateDummyFile2.formatPointOne.format(actual / (1L << 20))
+      + " MB/s (" + ((actual >= rateLimit) ? "+" : "")
+      + CreateDummyFile2.formatPointOne.format((actual - rateLimit) * 100.0
+      / rateLimit) + "%), burst " + CreateDummyFile2.formatComma.format(
+      burstSize) + " bytes.");
+    System.out.println("Slept " + CreateDummyFile2.formatComma.format(
+      sleepCount) + " times, average wake-up delay "
+      + CreateDummyFile2Stats.formatNanos((sleepCount > 0) ? (lateTotal
+      / sleepCount) : 0) + ", latest " + CreateDummyFile2Stats.formatNanos(
+      lateMax) + ".");
+    System.out.println("Behind schedule " + CreateDummyFile2.formatComma.format(
+      behindCount) + " times, for " + CreateDummyFile2Stats.formatNanos(
+      behindNanos) + "; " + CreateDummyFile2.formatComma.format(slowCount)
+      + " of " + CreateDummyFile2.formatComma.format(writeCount)
+      + " writes took longer than their share of time.");
+  }
+
+/*
+  start() method
+
+  Start with a full bucket, just before the first write.
+*/
+  void start()
+  {
+    fullTime = System.nanoTime();
+  }
+
+/*
+  waitFor() method
+
+  Sleep until the bucket has enough tokens for a write, and take those tokens.
+  If the write is bigger than the bucket, then wait for the whole write to be
+  earned, which keeps the rate but not the burst size.
+*/
+  void waitFor(int size)
+  {
+    long late;                    // nanoseconds late after sleeping
+    long now;                     // current time in nanoseconds
+    long wakeTime;                // when enough tokens will be there
+
+    if (nanosPerByte <= 0)        // no rate limit, only write sizes
+      return;
+    now = System.nanoTime();
+    if (fullTime < now)           // bucket is full, and has been for a while
+    {
+      if (writeCount > 0)         // don't count the time before first write
+      {
+        behindCount ++;
+        behindNanos += now - (long) fullTime;
+      }
+      fullTime = now;             // tokens can't be saved past a full bucket
+    }
+    fullTime += size * nanosPerByte; // take tokens for this write
+    wakeTime = (long) fullTime - burstNanos;
+    if (wakeTime > now)           // not enough tokens yet
+    {
+      do                          // parkNanos() may return early
+      {
+        java.util.concurrent.locks.LockSupport.parkNanos(wakeTime - now);
+        now = System.nanoTime();
+      } while (now < wakeTime);
+      late = now - wakeTime;
+      lateMax = Math.max(lateMax, late);
+      lateTotal += late;
+      sleepCount ++;
+    }
+  }
+
+} // end of CreateDummyFile2Pacer class
+
+/*
+  CreateDummyFile2Pipeline class
+
+  A ring of reusable buffers filled with pseudo-random data by worker threads,
+  and emptied in order by the thread writing the output file.  Block number
+  <n> is always filled by worker number (n % threadCount), and each worker has
+  two buffers, so one buffer can be filled while the other is being written
+  (double buffering).  Since each worker produces its blocks in order, there is
+  no need to sort buffers before writing.
+*/
+
+class CreateDummyFile2Pipeline
+{
+  /* constants */
+
+  static final int BUFFERS_PER_WORKER = 2; // two is double buffering
+
+  /* instance variables */
+
+  int lastWorker;                 // index of worker for most recent take()
+  long nextBlock;                 // block number for next call to take()
+  CreateDummyFile2Worker[] workers; // one generator thread per element
+
+/*
+  constructor
+*/
+  CreateDummyFile2Pipeline(CreateDummyFile2Data data, int threadCount,
+    long firstBlock, long blockCount)
+  {
+    int i;                        // index variable
+
+    lastWorker = -1;              // no buffers taken yet
+    nextBlock = firstBlock;       // zero, unless resuming
+    workers = new CreateDummyFile2Worker[threadCount];
+    for (i = 0; i < threadCount; i ++) // worker <i> gets blocks <i> mod count
+      workers[i] = new CreateDummyFile2Worker(data, (firstBlock + ((i
+        - (firstBlock % threadCount) + threadCount) % threadCount)),
+        threadCount, blockCount, BUFFERS_PER_WORKER);
+  }
+
+/*
+  release() method
+
+  Give the most recently taken buffer back to its worker thread for refilling.
+*/
+  void release(byte[] buffer) throws InterruptedIOException
+  {
+    try { workers[lastWorker].emptyQueue.put(buffer); }
+    catch (InterruptedException ie)
+    {
+      throw new InterruptedIOException("interrupted while releasing buffer");
+    }
+  }
+
+/*
+  start() method
+
+  Start all worker threads.  They stop by themselves after filling their last
+  block.
+*/
+  void start()
+  {
+    int i;                        // index variable
+
+    for (i = 0; i < workers.length; i ++)
+      workers[i].start();
+  }
+
+/*
+  take() method
+
+  Return the buffer for the next block in the file, waiting if the worker
+  thread hasn't finished filling it.
+*/
+  byte[] take() throws InterruptedIOException
+  {
+    lastWorker = (int) (nextBlock % workers.length);
+    nextBlock ++;
+    try { return(workers[lastWorker].fullQueue.take()); }
+    catch (InterruptedException ie)
+    {
+      throw new InterruptedIOException("interrupted while waiting for data");
+    }
+  }
+
+} // end of CreateDummyFile2Pipeline class
+
+/*
+  CreateDummyFile2Region class
+
+  One thread writing a region of the output file with positional writes.  A
+  repeating pattern is taken from the shared constant buffer, at an offset
+  based on the absolute file position, so the result is identical to writing
+  the whole file in order.  Pseudo-random data is generated into a private
+  buffer, and depends only on the seed and the file position.
+*/
+
+class CreateDummyFile2Region extends Thread
+{
+  /* instance variables */
+
+  long bytesDone;                 // number of bytes written in this region
+  FileChannel channel;            // shared output channel
+  CreateDummyFile2Data data;      // data bytes to be written
+  long endOffset;                 // file offset after end of this region
+  IOException error;              // I/O error that stopped us, or null
+  byte[] patternBuffer;           // constant pattern buffer, or null
+  long startOffset;               // file offset for start of this region
+
+/*
+  constructor
+*/
+  CreateDummyFile2Region(FileChannel channel, long startOffset,
+    long endOffset, CreateDummyFile2Data data, byte[] patternBuffer)
+  {
+    this.channel = channel;
+    this.data = data;
+    this.endOffset = endOffset;
+    this.patternBuffer = patternBuffer;
+    this.startOffset = startOffset;
+    bytesDone = 0;                // no bytes written so far
+    error = null;                 // no errors found so far
+    setName("CreateDummyFile2Region-" + startOffset);
+  }
+
+/*
+  run() method
+
+  Write our region in order, from start to end, or until an I/O error.
+*/
+  public void run()
+  {
+    byte[] buffer;                // byte buffer for writing output file
+    int k;                        // starting offset in our buffer
+    long position;                // current file position for writing
+    long syncDone;                // file position at last sync call
+    int thisSize;                 // number of bytes from current buffer
+    ByteBuffer wrapper;           // NIO wrapper around <buffer>
+    long writeStart;              // starting time of write in nanoseconds
+
+    if (patternBuffer == null)    // are we writing pseudo-random data?
+      buffer = new byte[CreateDummyFile2.BUFFER_SIZE]; // refill each time
+    else                          // no, shared buffer with constant data
+      buffer = patternBuffer;
+    wrapper = ByteBuffer.wrap(buffer); // one wrapper, reused for each write
+
+    k = 0;                        // starting offset in our buffer
+    position = syncDone = startOffset; // start at beginning of our region
+    try
+    {
+      while (position < endOffset) // go until end of region or I/O error
+      {
+        thisSize = (int) Math.min((endOffset - position),
+          CreateDummyFile2.BUFFER_SIZE);
+        if (patternBuffer == null) // random bytes or random selection?
+          data.fillRandom(buffer, 0, thisSize, position);
+        else                      // adjust offset to maintain pattern
+          k = (int) (position % data.dataLength);
+        wrapper.clear();          // reset position and limit
+        wrapper.position(k);
+        wrapper.limit(k + thisSize);
+        writeStart = System.nanoTime();
+        while (wrapper.hasRemaining()) // channels may write partial buffers
+          position += channel.write(wrapper, position);
+        if (CreateDummyFile2.stats != null) // time for this write, progress
+          CreateDummyFile2.stats.record((System.nanoTime() - writeStart),
+            thisSize);
+        if ((CreateDummyFile2.syncInterval > 0)
+          && ((position - syncDone) >= CreateDummyFile2.syncInterval))
+        {
+          CreateDummyFile2.syncFile(channel, null); // for this region's bytes
+          syncDone = position;
+        }
+      }
+    }
+    catch (IOException ioe)
+    {
+      error = ioe;                // save error for main thread to report
+    }
+    bytesDone = position - startOffset;
+  }
+
+} // end of CreateDummyFile2Region class
+
+/*
+  CreateDummyFile2Source class
+
+  A readable channel that produces the bytes of a file on demand, for programs
+  using CreateDummyFile2 as a library.  Bytes are generated directly into the
+  caller's buffer when the buffer has an array, or through a small buffer of
+  our own for direct buffers.  Only one read happens at a time.
+*/
+
+class CreateDummyFile2Source implements ReadableByteChannel
+{
+  /* instance variables */
+
+  byte[] buffer;                  // our buffer for direct buffers, or null
+  CreateDummyFile2Data data;      // data bytes to be generated
+  boolean open;                   // true until close() is called
+  long position;                  // offset of next byte to be read
+  long size;                      // total number of bytes to be read
+
+/*
+  constructor
 */
-  static byte[] parseDecBytes(String input)
+  CreateDummyFile2Source(CreateDummyFile2Data data, long size)
   {
-    char ch;                      // one character from input string
-    int digitCount;               // number of digits found in current byte
+    buffer = null;                // allocated only if needed
+    this.data = data;
+    open = true;
+    position = 0;                 // start at beginning of "file"
+    this.size = size;
+  }
+
+/*
+  close() method
+*/
+  public synchronized void close()
+  {
+    buffer = null;                // release memory
+    open = false;
+  }
+
+/*
+  isOpen() method
+*/
+  public synchronized boolean isOpen()
+  {
+    return(open);
+  }
+
+/*
+  read() method
+
+  Fill as much of the caller's buffer as we can, and return the number of
+  bytes, or -1 at the end.
+*/
+  public synchronized int read(ByteBuffer target) throws IOException
+  {
+    int done;                     // number of bytes put in <target>
+    int length;                   // number of bytes to be read
+    int thisSize;                 // number of bytes in our buffer
+
+    if (open == false)
+      throw new ClosedChannelException();
+    if (position >= size)         // nothing more to read
+      return(-1);
+    length = (int) Math.min(target.remaining(), (size - position));
+    if (target.hasArray())        // fill caller's array directly
+    {
+      data.fill(target.array(), (target.arrayOffset() + target.position()),
+        length, position);
+      target.position(target.position() + length);
+    }
+    else                          // fill our buffer, then copy
+    {
+      if (buffer == null)
+        buffer = new byte[CreateDummyFile2.BUFFER_SIZE];
+      for (done = 0; done < length; done += thisSize)
+      {
+        thisSize = Math.min((length - done), buffer.length);
+        data.fill(buffer, 0, thisSize, (position + done));
+        target.put(buffer, 0, thisSize);
+      }
+    }
+    position += length;
+    return(length);
+  }
+
+} // end of CreateDummyFile2Source class
+
+/*
+  CreateDummyFile2Stats class
+
+  Progress reports and write times while writing one file.  Writers call the
+  record() method after each write, from any thread.  Write times go into a
+  histogram with eight buckets for each power of two nanoseconds, which is
+  accurate to 12.5% for any time, with a fixed size.  Progress reports come
+  from a daemon thread that wakes up once per second, and keeps the last few
+  seconds of samples to calculate the speed over a sliding window.
+*/
+
+class CreateDummyFile2Stats implements Runnable
+{
+  /* constants */
+
+  static final int DEFAULT_PROGRESS = 10; // default seconds between reports
+  static final int HISTOGRAM_SIZE = 488; // eight buckets per power of two
+  static final int WINDOW_SECONDS = 10; // seconds for speed in progress report
+
+  /* instance variables */
+
+  long bytesDone;                 // number of bytes written so far
+  String fileName;                // name of file being written
+  long fileSize;                  // total number of bytes to be written
+  long[] histogram;               // number of writes in each time bucket
+  long intervalMax;               // slowest write since last progress report
+  long maxNanos;                  // slowest write in nanoseconds
+  long minNanos;                  // fastest write in nanoseconds
+  int progressSeconds;            // seconds between progress reports, or 0
+  Thread reporter;                // thread for progress reports, or null
+  long startBytes;                // bytes already done when started
+  long startTime;                 // starting time in nanoseconds
+  long totalNanos;                // total time for all writes
+  long writeCount;                // number of writes recorded
+
+/*
+  constructor
+*/
+  CreateDummyFile2Stats(String fileName, long fileSize, int progressSeconds)
+  {
+    bytesDone = intervalMax = maxNanos = totalNanos = writeCount = 0;
+    this.fileName = fileName;
+    this.fileSize = fileSize;
+    histogram = new long[HISTOGRAM_SIZE];
+    minNanos = Long.MAX_VALUE;    // any write will be faster
+    this.progressSeconds = progressSeconds;
+    reporter = null;              // no thread until start()
+    startBytes = 0;
+    startTime = System.nanoTime();
+  }
+
+/*
+  bucketIndex() method
+
+  Return the histogram bucket for a time in nanoseconds.  Times under 8 ns have
+  their own buckets.  Larger times are split by their highest bit, and then by
+  the next three bits.
+*/
+  static int bucketIndex(long nanos)
+  {
+    int high;                     // position of highest one bit
+
+    if (nanos < 8)                // includes zero and clock problems
+      return((int) Math.max(nanos, 0));
+    high = 63 - Long.numberOfLeadingZeros(nanos);
+    return(((high - 2) << 3) + (int) ((nanos >>> (high - 3)) & 7));
+  }
+
+/*
+  bucketLow() method
+
+  Return the smallest time in nanoseconds for a histogram bucket.  The largest
+  time in a bucket is one less than the smallest time in the next bucket.
+*/
+  static long bucketLow(int index)
+  {
+    if (index < 8)
+      return(index);
+    return((long) (8 + (index & 7)) << ((index >>> 3) - 1));
+  }
+
+/*
+  finish() method
+
+  Print the histogram of write times, if requested, and save all statistics in
+  a JSON file, if requested.  <bytes> is the number written by this run, and
+  doesn't include bytes kept by -resume, so the speed is only for this run.
+  Throws an IOException if the JSON file had any errors.
+*/
+  void finish(long bytes, long elapsed, boolean latencyFlag, String jsonName)
+    throws IOException
+  {
+    long count;                   // number of writes in one power of two
+    int i, k;                     // index variables
+    PrintWriter json;             // JSON statistics file
+    boolean more;                 // true if more buckets after this one
+
+    if (latencyFlag && (writeCount > 0))
+    {
+      System.out.println("Write times: " + CreateDummyFile2.formatComma.format(
+        writeCount) + " writes, average " + formatNanos(totalNanos
+        / writeCount) + ", 50% " + formatNanos(percentile(0.5)) + ", 90% "
+        + formatNanos(percentile(0.9)) + ", 99% " + formatNanos(percentile(
+        0.99)) + ", 99.9% " + formatNanos(percentile(0.999)) + ", slowest "
+        + formatNanos(maxNanos) + ".");
+      for (i = 0; i < HISTOGRAM_SIZE; i += 8) // one line per power of two
+      {
+        count = 0;
+        for (k = i; k < (i + 8); k ++)
+          count += histogram[k];
+        if (count > 0)
+          System.out.println("  " + formatNanos(bucketLow(i)) + " to "
+            + formatNanos(bucketLow(i + 8)) + ": "
+            + CreateDummyFile2.formatComma.format(count) + " writes ("
+            + CreateDummyFile2.formatPointOne.format(count * 100.0
+            / writeCount) + "%)");
+      }
+    }
+
+    if (jsonName != null)
+    {
+      json = new PrintWriter(new BufferedWriter(new FileWriter(jsonName)));
+      json.println("{");
+      json.println("  \"file\": " + jsonString(fileName) + ",");
+      json.println("  \"fileSize\": " + fileSize + ",");
+      json.println("  \"bytesWritten\": " + bytes + ",");
+      json.println("  \"seconds\": " + String.format(Locale.ROOT, "%.3f",
+        (elapsed / 1e9)) + ",");
+      json.println("  \"megabytesPerSecond\": " + String.format(Locale.ROOT,
+        "%.1f", ((elapsed > 0) ? (bytes * 1e9 / elapsed / (1 << 20)) : 0.0))
+        + ",");
+      json.println("  \"writes\": " + writeCount + ",");
+      json.println("  \"syncs\": " + CreateDummyFile2.syncCount + ",");
+      json.println("  \"syncSeconds\": " + String.format(Locale.ROOT, "%.3f",
+        (CreateDummyFile2.syncNanos / 1e9)) + ",");
+      json.println("  \"writeNanos\": {\"min\": " + ((writeCount > 0)
+        ? minNanos : 0) + ", \"mean\": " + ((writeCount > 0) ? (totalNanos
+        / writeCount) : 0) + ", \"p50\": " + percentile(0.5) + ", \"p90\": "
+        + percentile(0.9) + ", \"p99\": " + percentile(0.99) + ", \"p999\": "
+        + percentile(0.999) + ", \"max\": " + maxNanos + "},");
+      json.println("  \"histogram\": [");
+      for (i = 0; i < HISTOGRAM_SIZE; i ++)
+      {
+        if (histogram[i] == 0)    // only buckets with writes
+          continue;
+        more = false;
+        for (k = i + 1; k < HISTOGRAM_SIZE; k ++)
+          more |= (histogram[k] != 0);
+        json.println("    {\"fromNanos\": " + bucketLow(i) + ", \"toNanos\": "
+          + (bucketLow(i + 1) - 1) + ", \"count\": " + histogram[i] + "}"
+          + (more ? "," : ""));
+      }
+      json.println("  ]");
+      json.println("}");
+      json.close();               // PrintWriter doesn't throw exceptions
+      if (json.checkError())
+        throw new IOException("can't write statistics to JSON file");
+    }
+  }
+
+/*
+  formatDuration() method
+
+  Return a string with hours, minutes, and seconds, such as "1:02:03".
+*/
+  static String formatDuration(long seconds)
+  {
+    return(String.format("%d:%02d:%02d", (seconds / 3600),
+      ((seconds / 60) % 60), (seconds % 60)));
+  }
+
+/*
+  formatNanos() method
+
+  Return a string with a time in nanoseconds, using a unit that keeps the
+  number readable.
+*/
+  static String formatNanos(long nanos)
+  {
+    if (nanos < 1000)
+      return(nanos + " ns");
+    if (nanos < 1000000)
+      return(CreateDummyFile2.formatPointOne.format(nanos / 1e3) + " us");
+    if (nanos < 1000000000)
+      return(CreateDummyFile2.formatPointOne.format(nanos / 1e6) + " ms");
+    return(CreateDummyFile2.formatPointOne.format(nanos / 1e9) + " s");
+  }
+
+/*
+  jsonString() method
+
+  Return a string in quotes, with special characters escaped for JSON.
+*/
+  static String jsonString(String text)
+  {
+    StringBuilder buffer;         // faster than String for multiple appends
+    char ch;                      // one character from <text>
     int i;                        // index variable
-    int inputLength;              // number of characters in <input>
-    byte[] result;                // cleaned up result with correct length
-    byte[] tempBytes;             // encoded (binary) data bytes
-    int tempCount;                // number of data bytes in <tempBytes>
-    int value;                    // one binary data byte as an integer
 
-    digitCount = 0;               // no digits found in current byte
-    inputLength = input.length(); // number of digits or spaces, etc
-    tempBytes = new byte[inputLength]; // always more than what we need
-    tempCount = 0;                // no binary data bytes found
-    value = 0;                    // no initial value for this data byte
-    for (i = 0; i < inputLength; i ++)
+    buffer = new StringBuilder();
+    buffer.append('"');
+    for (i = 0; i < text.length(); i ++)
     {
-      ch = input.charAt(i);       // get one digit, punctuation, other
-      if ((ch >= '0') && (ch <= '9')) // decimal digit?
+      ch = text.charAt(i);
+      if ((ch == '"') || (ch == '\\'))
+        buffer.append('\\').append(ch);
+      else if (ch < 0x20)         // control characters
+        buffer.append(String.format("\\u%04x", (int) ch));
+      else
+        buffer.append(ch);
+    }
+    buffer.append('"');
+    return(buffer.toString());
+  }
+
+/*
+  percentile() method
+
+  Return the time in nanoseconds for a fraction of all writes (0.5 for the
+  median).  This is the largest time in the bucket holding that write, or the
+  slowest write if that is smaller.
+*/
+  long percentile(double fraction)
+  {
+    long count;                   // number of writes so far
+    int i;                        // index variable
+    long target;                  // number of writes that must be included
+
+    if (writeCount == 0)          // nothing recorded
+      return(0);
+    count = 0;
+    target = Math.max((long) Math.ceil(fraction * writeCount), 1);
+    for (i = 0; i < (HISTOGRAM_SIZE - 1); i ++)
+    {
+      count += histogram[i];
+      if (count >= target)
+        break;
+    }
+    return(Math.min((bucketLow(i + 1) - 1), maxNanos));
+  }
+
+/*
+  record() method
+
+  Add the time and size of one write.  Called by the thread that did the write.
+*/
+  synchronized void record(long nanos, long bytes)
+  {
+    bytesDone += bytes;
+    histogram[bucketIndex(nanos)] ++;
+    intervalMax = Math.max(intervalMax, nanos);
+    maxNanos = Math.max(maxNanos, nanos);
+    minNanos = Math.min(minNanos, nanos);
+    totalNanos += nanos;
+    writeCount ++;
+  }
+
+/*
+  run() method
+
+  Take one sample per second, and print a progress report every so often, until
+  interrupted by the stop() method.  The speed is calculated from the oldest
+  sample we still have, up to WINDOW_SECONDS ago.  The first sample is the
+  bytes done when started, so bytes kept by -resume don't count as speed.
+*/
+  public void run()
+  {
+    long bytes;                   // bytes done at this sample
+    long now;                     // time of this sample in nanoseconds
+    int oldest;                   // index of oldest sample in window
+    double rate;                  // bytes per second over window
+    int seconds;                  // number of samples taken
+    long slowest;                 // slowest write since last report
+    long[] windowBytes;           // bytes done at each recent sample
+    long[] windowTimes;           // time of each recent sample
+
+    seconds = 0;                  // first sample is the starting time
+    windowBytes = new long[WINDOW_SECONDS + 1];
+    windowTimes = new long[WINDOW_SECONDS + 1];
+    windowBytes[0] = startBytes;
+    windowTimes[0] = startTime;
+    while (true)
+    {
+      try { Thread.sleep(1000); } // one sample per second
+      catch (InterruptedException ie) { return; } // stop() was called
+      seconds ++;
+      synchronized (this)
       {
-        value = (value * 10) + (ch - '0'); // shift old left, add new digit
-        digitCount ++;            // at least one digit found
+        bytes = bytesDone;
+        slowest = intervalMax;
+        if ((seconds % progressSeconds) == 0) // report now: new interval
+          intervalMax = 0;
       }
-      else if (((ch >= 0x00) && (ch <= 0x2F)) // ASCII Unicode punctuation
-        || ((ch >= 0x3A) && (ch <= 0x40))
-        || ((ch >= 0x5B) && (ch <= 0x60))
-        || ((ch >= 0x7B) && (ch <= 0x7F))) // safe up to 0xBF
+      now = System.nanoTime();
+      windowBytes[seconds % windowBytes.length] = bytes;
+      windowTimes[seconds % windowTimes.length] = now;
+      if ((seconds % progressSeconds) != 0) // not time for a report yet
+        continue;
+
+      oldest = Math.max((seconds - WINDOW_SECONDS), 0) % windowBytes.length;
+      rate = (bytes - windowBytes[oldest]) * 1e9 / Math.max((now
+        - windowTimes[oldest]), 1);
+      System.out.println("Progress: " + CreateDummyFile2.formatComma.format(
+        bytes) + " bytes (" + CreateDummyFile2.formatPointOne.format(
+        (fileSize > 0) ? (bytes * 100.0 / fileSize) : 100.0) + "%), "
+        + CreateDummyFile2.formatPointOne.format(rate / (1 << 20))
+        + " MB/s, " + ((rate > 0) ? formatDuration((long) Math.ceil(
+        (fileSize - bytes) / rate)) : "?:??:??") + " remaining, slowest write "
+        + formatNanos(slowest) + ".");
+    }
+  }
+
+/*
+  start() method
+
+  Start the clock, and the thread for progress reports (if wanted).  Any bytes
+  already done (kept by -resume) are remembered, and aren't part of the speed.
+*/
+  void start()
+  {
+    startBytes = bytesDone;
+    startTime = System.nanoTime();
+    if (progressSeconds > 0)
+    {
+      reporter = new Thread(this, "CreateDummyFile2Stats");
+      reporter.setDaemon(true);   // don't keep program alive after an error
+      reporter.start();
+    }
+  }
+
+/*
+  stop() method
+
+  Stop the thread for progress reports, if there is one.
+*/
+  void stop()
+  {
+    if (reporter != null)
+    {
+      reporter.interrupt();
+      try { reporter.join(); }    // wait for last report to finish printing
+      catch (InterruptedException ie) { /* ignore, not expected */ }
+      reporter = null;
+    }
+  }
+
+} // end of CreateDummyFile2Stats class
+
+/*
+  CreateDummyFile2Target class
+
+  Write one of several output files (targets) with its own thread and its own
+  buffers, so that one process can keep several disks busy at once.  Either
+  the whole file is written to each target, by the normal output method or
+  -direct, with worker threads if asked; or the file is split into stripes,
+  and stripe <n> goes to target <n> modulo the number of targets.  Striped
+  data depends on the offset in the whole file, so the targets can be put back
+  together in stripe order to get the same bytes as one file.
+*/
+
+class CreateDummyFile2Target extends Thread
+{
+  /* instance variables */
+
+  byte[] buffer;                  // our buffer, or null if <pipeline>
+  long bytesDone;                 // number of bytes written to this target
+  CreateDummyFile2Data data;      // data bytes to be written
+  boolean directFlag;             // true if we bypass the file cache
+  long elapsed;                   // elapsed time in nanoseconds
+  IOException error;              // I/O error that stopped us, or null
+  String fileName;                // name of file to be created
+  long fileSize;                  // size of whole file, before striping
+  CreateDummyFile2Pipeline pipeline; // worker threads, or null if none
+  long stripeSize;                // bytes per stripe, or zero for copies
+  int targetCount;                // total number of targets
+  int targetIndex;                // our index, from zero to count minus one
+
+/*
+  constructor
+*/
+  CreateDummyFile2Target(String fileName, int targetIndex, int targetCount,
+    long fileSize, long stripeSize, CreateDummyFile2Data data,
+    boolean directFlag, int threadCount)
+  {
+    this.data = data;
+    this.directFlag = directFlag;
+    this.fileName = fileName;
+    this.fileSize = fileSize;
+    this.stripeSize = stripeSize;
+    this.targetCount = targetCount;
+    this.targetIndex = targetIndex;
+    bytesDone = elapsed = 0;      // nothing done yet
+    error = null;                 // no errors found so far
+    pipeline = null;              // by default, no worker threads
+    setName("CreateDummyFile2Target-" + targetIndex);
+
+    if (data.randomFlag && (threadCount > 0)) // worker threads for target?
+    {
+      buffer = null;              // buffers come from worker threads
+      pipeline = new CreateDummyFile2Pipeline(data, threadCount, 0,
+        ((fileSize + CreateDummyFile2.BUFFER_SIZE - 1)
+        / CreateDummyFile2.BUFFER_SIZE));
+    }
+    else if (data.randomFlag)     // refill our own buffer for each write
+      buffer = new byte[CreateDummyFile2.BUFFER_SIZE];
+    else                          // our own copy of the constant pattern
+    {
+      buffer = new byte[CreateDummyFile2.BUFFER_SIZE + data.dataLength];
+      data.fillPattern(buffer, buffer.length);
+    }
+  }
+
+/*
+  run() method
+
+  Write our target, and remember the number of bytes, the elapsed time, and
+  any I/O error for the main thread to report.
+*/
+  public void run()
+  {
+    long startTime;               // starting time in nanoseconds
+
+    startTime = System.nanoTime();
+    try
+    {
+      if (stripeSize > 0)         // only our stripes of the whole file
+        bytesDone = writeStripes();
+      else if (directFlag)        // bypass the file cache
+        bytesDone = CreateDummyFile2.writeDirect(fileName, fileSize, data,
+          buffer, pipeline);
+      else                        // default is one FileOutputStream
+        bytesDone = CreateDummyFile2.writeStream(fileName, fileSize, data,
+          buffer, pipeline);
+    }
+    catch (IOException ioe)
+    {
+      error = ioe;                // save error for main thread to report
+    }
+    elapsed = System.nanoTime() - startTime; // includes time to close
+  }
+
+/*
+  writeStripes() method
+
+  Write our stripes of the whole file, in order, to our target.  Return the
+  number of bytes written.
+*/
+  long writeStripes() throws IOException
+  {
+    long end;                     // offset in whole file after this stripe
+    int k;                        // starting offset in our buffer
+    long offset;                  // offset in whole file for next write
+    FileOutputStream out;         // byte output stream for writing file
+    long stripe;                  // stripe number in whole file
+    long syncDone;                // number of bytes at last sync call
+    long written;                 // number of bytes written so far
+    int thisSize;                 // number of bytes from current buffer
+
+    out = new FileOutputStream(fileName); // try to create output file
+    k = 0;                        // starting offset in our buffer
+    written = syncDone = 0;       // no bytes written so far
+    for (stripe = targetIndex; (stripe * stripeSize) < fileSize;
+      stripe += targetCount)
+    {
+      offset = stripe * stripeSize;
+      end = Math.min((offset + stripeSize), fileSize);
+      while (offset < end)
       {
-        if (digitCount > 0) digitCount = 3; // accept one or two digits
+        thisSize = (int) Math.min((end - offset),
+          CreateDummyFile2.BUFFER_SIZE);
+        if (data.randomFlag)      // random bytes or random selection?
+          data.fillRandom(buffer, 0, thisSize, offset);
+        else                      // adjust offset to maintain pattern
+          k = (int) (offset % data.dataLength);
+        out.write(buffer, k, thisSize);
+        offset += thisSize;
+        written += thisSize;
+        if ((CreateDummyFile2.syncInterval > 0)
+          && ((written - syncDone) >= CreateDummyFile2.syncInterval))
+        {
+          CreateDummyFile2.syncFile(out.getChannel(), null);
+          syncDone = written;
+        }
       }
-      else                        // draw the line at obviously bad input
-        return(null);             // don't bother doing anything more
+    }
+    if (CreateDummyFile2.syncFlag) // force data to disk before closing
+      CreateDummyFile2.syncFile(out.getChannel(), null);
+    out.close();                  // try to close output file
+    return(written);
+  }
+
+} // end of CreateDummyFile2Target class
+
+/*
+  CreateDummyFile2Text class
+
+  Lines of text made from a template, for log files and CSV files that look
+  real.  The template is compiled once into parts: literal text, and fields for
+  a counter, a timestamp, a random number, or a word picked from a list.  Each
+  line is encoded directly into a reusable byte array, with no String objects,
+  then copied into the caller's buffer.  A line that doesn't fit is finished at
+  the start of the next buffer, so the file ends at exactly the right size, in
+  the middle of a line if necessary.
+
+  Unlike other data, the bytes at an offset depend on the length of every line
+  before it, so lines must be generated in order.  Calls for the next offset are
+  fast.  Calls for any other offset start again from the beginning of the file,
+  and generate and discard lines until they reach the offset.  That's correct,
+  but slow, so methods that fill buffers out of order are not allowed.
+*/
+
+class CreateDummyFile2Text
+{
+  /* constants */
+
+  static final int PART_COUNT = 1; // counter: line number plus start value
+  static final int PART_RANDOM = 2; // random number from a range
+  static final int PART_TEXT = 0;  // literal text
+  static final int PART_TIME = 3;  // timestamp: start time plus line times step
+  static final int PART_WORD = 4;  // word picked at random from a list
+  static final long TIME_END = 253402300799999L;
+                                  // last millisecond of year 9999, in UTC
+  static final long TIME_START = 1704067200000L;
+                                  // 2024-01-01 00:00:00 UTC in milliseconds
+
+  /* instance variables */
+
+  byte[] line;                    // bytes of current line
+  byte[] lineBuffer;              // our buffer for lines that don't fit
+  int lineLength;                 // number of bytes in <line>
+  int lineMaximum;                // longest possible line
+  long lineNumber;                // number of next line, from zero
+  int linePosition;               // index of next byte in <line> to copy
+  long nextOffset;                // file offset for next byte to copy
+  long[] partHigh;                // largest random number for each part
+  long[] partLow;                 // counter start, random low, time step
+  byte[][] partText;              // literal text for each part
+  int[] partType;                 // PART_TEXT, PART_COUNT, etc.
+  byte[][][] partWords;           // word list for each part
+  long randomKey;                 // mixed seed for random fields
+  byte[] timeDate;                // date part of last timestamp
+  long timeDay;                   // days since 1970 for <timeDate>
+
+/*
+  constructor
+*/
+  CreateDummyFile2Text(long randomSeed)
+  {
+    randomKey = CreateDummyFile2Data.mixBits(randomSeed ^ TIME_START);
+    line = lineBuffer = new byte[1]; // until template is compiled
+    lineMaximum = 1;
+    partHigh = partLow = new long[0];
+    partText = new byte[0][];
+    partType = new int[0];
+    partWords = new byte[0][][];
+    timeDate = null;              // no timestamp yet
+    timeDay = Long.MIN_VALUE;
+    reset();
+  }
+
+/*
+  appendClock() method
+
+  Append the time of day from a timestamp, such as "00:00:00.000Z", given the
+  milliseconds since midnight.
+*/
+  void appendClock(int time)
+  {
+    appendDigits((time / 3600000), 2);
+    line[lineLength ++] = (byte) ':';
+    appendDigits(((time / 60000) % 60), 2);
+    line[lineLength ++] = (byte) ':';
+    appendDigits(((time / 1000) % 60), 2);
+    line[lineLength ++] = (byte) '.';
+    appendDigits((time % 1000), 3);
+    line[lineLength ++] = (byte) 'Z';
+  }
+
+/*
+  appendDigits() method
+
+  Append a number with a fixed number of decimal digits, with leading zeros.
+*/
+  void appendDigits(long value, int digits)
+  {
+    int i;                        // index variable
+    int small;                    // same value, when it fits in an int
+
+    i = lineLength + digits - 1;  // fill from the right
+    while ((value > Integer.MAX_VALUE) && (i >= lineLength))
+    {
+      line[i --] = (byte) ('0' + (value % 10));
+      value /= 10;
+    }
+    small = (int) value;          // int division is much faster than long
+    while (i >= lineLength)
+    {
+      line[i --] = (byte) ('0' + (small % 10));
+      small /= 10;
+    }
+    lineLength += digits;
+  }
+
+/*
+  appendNumber() method
+
+  Append a signed decimal number, without leading zeros.
+*/
+  void appendNumber(long value)
+  {
+    int digits;                   // number of decimal digits
+    long power;                   // power of ten for counting digits
+
+    if (value < 0)                // minus sign, then a positive number
+    {
+      line[lineLength ++] = (byte) '-';
+      if (value == Long.MIN_VALUE) // can't be made positive
+      {
+        appendDigits(922337203685477580L, 18);
+        line[lineLength ++] = (byte) '8';
+        return;
+      }
+      value = - value;
+    }
+    digits = 1;
+    power = 10;
+    while ((digits < 19) && (value >= power))
+    {
+      digits ++;
+      power *= 10;
+    }
+    appendDigits(value, digits);
+  }
+
+/*
+  appendTime() method
+
+  Append a timestamp in ISO 8601 format with milliseconds, such as
+  "2024-01-01T00:00:00.000Z".  The date comes from the number of days since
+  1970, by Howard Hinnant's days_from_civil() in reverse, so no Calendar or
+  String objects are needed.  The date is only calculated again when the day
+  changes.
+*/
+  void appendTime(long millis)
+  {
+    long day;                     // day of month
+    long days;                    // days since 1970-01-01
+    long dayOfEra;                // day in 400-year era, from zero
+    long dayOfYear;               // day of year from March 1st, from zero
+    long era;                     // 400-year era
+    long month;                   // month of year, from 1
+    long monthIndex;              // month from March, from zero
+    int start;                    // index of date in <line>
+    long time;                    // milliseconds since midnight
+    long year;                    // year
+    long yearOfEra;               // year in era, from zero
+
+    days = Math.floorDiv(millis, 86400000L);
+    time = Math.floorMod(millis, 86400000L);
+    if (days == timeDay)          // same day as last time, copy date
+    {
+      System.arraycopy(timeDate, 0, line, lineLength, timeDate.length);
+      lineLength += timeDate.length;
+      appendClock((int) time);
+      return;
+    }
+    timeDay = days;               // remember date for next time
+    days += 719468;               // days from 0000-03-01 to 1970-01-01
+    era = Math.floorDiv(days, 146097);
+    dayOfEra = days - (era * 146097);
+    yearOfEra = (dayOfEra - (dayOfEra / 1460) + (dayOfEra / 36524)
+      - (dayOfEra / 146096)) / 365;
+    dayOfYear = dayOfEra - ((365 * yearOfEra) + (yearOfEra / 4)
+      - (yearOfEra / 100));
+    monthIndex = ((5 * dayOfYear) + 2) / 153;
+    day = dayOfYear - (((153 * monthIndex) + 2) / 5) + 1;
+    month = (monthIndex < 10) ? (monthIndex + 3) : (monthIndex - 9);
+    year = yearOfEra + (era * 400) + ((month <= 2) ? 1 : 0);
+
+    start = lineLength;           // where date starts in <line>
+    appendDigits(year, 4);
+    line[lineLength ++] = (byte) '-';
+    appendDigits(month, 2);
+    line[lineLength ++] = (byte) '-';
+    appendDigits(day, 2);
+    line[lineLength ++] = (byte) 'T';
+    timeDate = Arrays.copyOfRange(line, start, lineLength);
+    appendClock((int) time);
+  }
+
+/*
+  checkSize() method
+
+  Return an error message if a timestamp in a file of <fileSize> bytes could
+  pass the end of the year 9999, which doesn't fit in four digits, or null if
+  all timestamps fit.  There can't be more lines than the file size divided by
+  the shortest possible line.
+*/
+  String checkSize(long fileSize)
+  {
+    int i, j;                     // index variables
+    long lines;                   // most lines in file, rounded up
+    int minLength;                // shortest possible line
+    int shortest;                 // shortest word in a list
+    long step;                    // largest time step, in milliseconds
+
+    minLength = 1;                // newline at end of each line
+    step = 0;                     // no timestamps found yet
+    for (i = 0; i < partType.length; i ++)
+    {
+      if (partType[i] == PART_TEXT)
+        minLength += partText[i].length;
+      else if (partType[i] == PART_TIME)
+      {
+        minLength += 24;          // timestamps always have the same length
+        step = Math.max(step, partLow[i]);
+      }
+      else if (partType[i] == PART_WORD)
+      {
+        shortest = Integer.MAX_VALUE;
+        for (j = 0; j < partWords[i].length; j ++)
+          shortest = Math.min(shortest, partWords[i][j].length);
+        minLength += shortest;
+      }
+      else                        // numbers have at least one digit
+        minLength += 1;
+    }
+    if (step == 0)                // no timestamps, or all the same time
+      return(null);
+    lines = (fileSize / minLength) + 1;
+    if ((lines - 1) > ((TIME_END - TIME_START) / step))
+    {
+      return("Timestamps would pass the year 9999 for this file size: use a "
+        + "smaller step for {t:#}.");
+    }
+    return(null);
+  }
+
+/*
+  fill() method
+
+  Fill part of a buffer with the text that belongs at a given offset in the
+  file.  Synchronized, because our position in the text is shared.
+*/
+  synchronized void fill(byte[] buffer, int start, int length, long offset)
+  {
+    int done;                     // number of bytes filled so far
+    int thisSize;                 // number of bytes from current line
+
+    if (offset < nextOffset)      // going backwards: start again
+      reset();
+    while (nextOffset < offset)   // skip lines before caller's offset
+    {
+      if (linePosition >= lineLength)
+      {
+        lineLength = linePosition = 0;
+        makeLine();
+      }
+      thisSize = (int) Math.min((lineLength - linePosition),
+        (offset - nextOffset));
+      linePosition += thisSize;
+      nextOffset += thisSize;
+    }
+
+    done = 0;
+    while (done < length)
+    {
+      if ((linePosition >= lineLength) && ((length - done) >= lineMaximum))
+      {
+        /* Usual case: the whole line fits, so encode it directly into the
+        caller's buffer, without copying. */
 
-      if (digitCount >= 3)        // new binary byte every three digits
+        line = buffer;
+        lineLength = start + done;
+        makeLine();
+        done = lineLength - start;
+        line = lineBuffer;        // back to our own buffer
+        lineLength = linePosition = 0;
+        continue;
+      }
+      if (linePosition >= lineLength) // need another line, in our buffer
       {
-        if (value > BYTE_MASK)    // overflow (from 256 to 999)
-          return(null);
-        tempBytes[tempCount ++] = (byte) value; // save one data byte
-        digitCount = value = 0;   // no partial data for next digit
+        lineLength = linePosition = 0;
+        makeLine();
       }
+      thisSize = Math.min((lineLength - linePosition), (length - done));
+      System.arraycopy(line, linePosition, buffer, (start + done), thisSize);
+      done += thisSize;
+      linePosition += thisSize;
     }
-    if (digitCount > 0)           // could be trailing one or two digits
+    nextOffset += length;
+  }
+
+/*
+  makeLine() method
+
+  Encode the next line into <line>, starting at index <lineLength>, and ending
+  with a newline.
+*/
+  void makeLine()
+  {
+    int i;                        // index into parts
+    byte[] pick;                  // word picked from list
+    long word;                    // 64-bit random word for current part
+
+    for (i = 0; i < partType.length; i ++)
     {
-      tempBytes[tempCount ++] = (byte) value; // can't overflow (0 to 99)
+      word = ((partType[i] == PART_RANDOM) || (partType[i] == PART_WORD))
+        ? CreateDummyFile2Data.mixBits(randomKey + (((lineNumber
+        * partType.length) + i + 1) * CreateDummyFile2Data.GOLDEN_GAMMA)) : 0;
+      switch (partType[i])
+      {
+        case PART_COUNT:
+          appendNumber(partLow[i] + lineNumber);
+          break;
+        case PART_RANDOM:
+          appendNumber(partLow[i] + Long.remainderUnsigned(word,
+            (partHigh[i] - partLow[i] + 1)));
+          break;
+        case PART_TIME:
+          appendTime(TIME_START + (lineNumber * partLow[i]));
+          break;
+        case PART_WORD:
+          pick = partWords[i][(int) Long.remainderUnsigned(word,
+            partWords[i].length)];
+          System.arraycopy(pick, 0, line, lineLength, pick.length);
+          lineLength += pick.length;
+          break;
+        default:                  // PART_TEXT
+          System.arraycopy(partText[i], 0, line, lineLength,
+            partText[i].length);
+          lineLength += partText[i].length;
+          break;
+      }
     }
+    line[lineLength ++] = (byte) '\n';
+    lineNumber ++;
+  }
 
-    result = new byte[tempCount]; // truncate array to correct length
-    for (i = 0; i < tempCount; i ++)
-      result[i] = tempBytes[i];
-    return(result);               // give caller correct byte array
+/*
+  readWords() method
 
-  } // end of parseDecBytes() method
+  Return the words for a word field: a list separated by commas, or the lines
+  in a file if the argument starts with an at sign (@).  Blank lines in the
+  file are ignored.
+*/
+  static byte[][] readWords(String arg) throws IOException
+  {
+    int i;                        // index variable
+    String line;                  // one line from word file
+    String[] list;                // words separated by commas
+    BufferedReader reader;        // word file
+    ArrayList<byte[]> words;      // words found so far
 
+    words = new ArrayList<byte[]>();
+    if (arg.startsWith("@"))      // one word per line in a file
+    {
+      reader = new BufferedReader(new FileReader(arg.substring(1)));
+      while ((line = reader.readLine()) != null)
+      {
+        if (line.trim().length() > 0)
+          words.add(line.getBytes()); // local character set
+      }
+      reader.close();
+    }
+    else                          // words separated by commas
+    {
+      list = arg.split(",", -1);  // keep empty words
+      for (i = 0; i < list.length; i ++)
+        words.add(list[i].getBytes());
+    }
+    return(words.toArray(new byte[0][]));
+  }
 
 /*
-  parseFileSize() method
+  reset() method
 
-  Given a string with a file size and suffix (KB, MB, GB, TB, etc), return the
-  size in bytes as a non-negative long integer.  Return -1 if the value is too
-  large or the string has poor syntax.  The size must be an integer (zero or
-  more) without commas or other digit grouping, followed by an optional suffix.
-  If no suffix is given, bytes are assumed.
+  Start again from the first line.
+*/
+  void reset()
+  {
+    lineLength = linePosition = 0; // no line yet
+    lineNumber = 0;
+    nextOffset = 0;
+  }
+
+/*
+  setTemplate() method
 
-  If this method is called repeatedly, the compiled regular expression should
-  be saved between calls, and the Pattern.CASE_INSENSITIVE option can be used
-  instead of String.toLowerCase().
+  Compile a template into parts.  Return an error message, or null if the
+  template is correct.  Fields are in braces: {n} for a counter from 1, or
+  {n:#} from #; {r:#-#} for a random number in a range; {t} for a timestamp
+  that goes up by one second per line, or {t:#} by # milliseconds; and
+  {w:word,word,...} for a word picked at random, or {w:@file} for words from a
+  file, one per line.  Two braces {{ or }} are one literal brace.  Text outside
+  fields is in the local character set, like -p#.
 */
-  static long parseFileSize(String input)
+  String setTemplate(String template)
   {
-    Matcher matcher;              // pattern matcher for given string
-    long number;                  // integer part before suffix
-    Pattern pattern;              // compiled regular expression
-    char prefix;                  // first character of suffix (if any)
-    long result;                  // our result (the file size)
-    long scale;                   // scale factor for KB, MB, GB, etc
-    String suffix;                // suffix string (may be null)
+    String arg;                   // argument after colon, or empty
+    int end;                      // index of closing brace
+    long high, low;               // numbers from field argument
+    int i, j;                     // index variables
+    int longest;                  // longest word in a word list
+    int maxLength;                // longest possible line
+    String name;                  // field name before colon
+    ArrayList<long[]> numbers;    // low and high values for each part
+    StringBuilder text;           // literal text being collected
+    ArrayList<Integer> types;     // type of each part
+    ArrayList<byte[]> texts;      // literal text for each part
+    ArrayList<byte[][]> wordLists; // word list for each part
 
-    result = -1;                  // assume file size is invalid
-    pattern = Pattern.compile(    // compile our regular expression
-      "\\s*(\\d+)\\s*(|b|k|kb|kib|m|mb|mib|g|gb|gib|t|tb|tib|p|pb|pib|e|eb|eib)\\s*");
-    matcher = pattern.matcher(input.toLowerCase()); // parse given string
-    if (matcher.matches())        // if string has proper syntax
+    numbers = new ArrayList<long[]>();
+    text = new StringBuilder();
+    texts = new ArrayList<byte[]>();
+    types = new ArrayList<Integer>();
+    wordLists = new ArrayList<byte[][]>();
+    i = 0;
+    while (i <= template.length())
     {
-      /* Parse integer number before any suffix. */
-
-      try                         // try to parse digits as unsigned integer
+      if ((i < template.length()) && template.startsWith("{{", i))
+      {
+        text.append('{');         // literal brace
+        i += 2;
+        continue;
+      }
+      if ((i < template.length()) && template.startsWith("}}", i))
       {
-        number = Long.parseLong(matcher.group(1));
+        text.append('}');
+        i += 2;
+        continue;
       }
-      catch (NumberFormatException nfe) // if not a number or bad syntax
+      if ((i < template.length()) && (template.charAt(i) != '{'))
       {
-        number = -1;              // set result to an illegal value
+        text.append(template.charAt(i ++));
+        continue;
       }
+      if (text.length() > 0)      // literal text before field or at end
+      {
+        numbers.add(null);
+        texts.add(text.toString().getBytes()); // local character set
+        types.add(PART_TEXT);
+        wordLists.add(null);
+        text.setLength(0);
+      }
+      if (i >= template.length()) // end of template
+        break;
 
-      /* Convert suffix string (if any) into a scale factor. */
+      end = template.indexOf('}', i);
+      if (end < 0)
+        return("Missing closing brace in text template: " + template);
+      j = template.indexOf(':', i);
+      if ((j < 0) || (j > end))   // no argument
+        j = end;
+      name = template.substring((i + 1), j);
+      arg = (j < end) ? template.substring((j + 1), end) : "";
+      i = end + 1;                // next character after field
+      numbers.add(new long[] {0, 0});
+      texts.add(null);
+      wordLists.add(null);
+      try
+      {
+        if (name.equals("n"))     // counter
+        {
+          types.add(PART_COUNT);
+          low = (arg.length() == 0) ? 1 : Long.parseLong(arg);
+          numbers.set((numbers.size() - 1), new long[] {low, 0});
+        }
+        else if (name.equals("r")) // random number from a range
+        {
+          types.add(PART_RANDOM);
+          j = arg.indexOf('-', 1); // hyphen after first number
+          if (j < 0)
+            return("Random field needs a range such as {r:1-100}: " + arg);
+          low = Long.parseLong(arg.substring(0, j));
+          high = Long.parseLong(arg.substring(j + 1));
+          if ((high < low) || ((high - low + 1) == 0)) // or all 2^64 values
+            return("Random range must be from low to high: " + arg);
+          numbers.set((numbers.size() - 1), new long[] {low, high});
+        }
+        else if (name.equals("t")) // timestamp
+        {
+          types.add(PART_TIME);
+          low = (arg.length() == 0) ? 1000 : Long.parseLong(arg);
+          if ((low < 0) || (low > 86400000L))
+            return("Time step must be from 0 to 86400000 ms: " + arg);
+          numbers.set((numbers.size() - 1), new long[] {low, 0});
+        }
+        else if (name.equals("w")) // word picked from a list
+        {
+          types.add(PART_WORD);
+          wordLists.set((wordLists.size() - 1), readWords(arg));
+          if (wordLists.get(wordLists.size() - 1).length == 0)
+            return("Word list must have at least one word: " + arg);
+        }
+        else
+          return("Text field not recognized: {" + name + "}");
+      }
+      catch (NumberFormatException nfe)
+      {
+        return("Text field must have a decimal integer: {" + name + ":" + arg
+          + "}");
+      }
+      catch (IOException ioe)
+      {
+        return("Can't read word list: " + ioe.getMessage());
+      }
+    }
 
-      if (((suffix = matcher.group(2)) == null) || (suffix.length() == 0)
-        || ((prefix = suffix.charAt(0)) == 'b'))
+    maxLength = 1;                // newline at end of each line
+    partHigh = new long[types.size()];
+    partLow = new long[types.size()];
+    partText = new byte[types.size()][];
+    partType = new int[types.size()];
+    partWords = new byte[types.size()][][];
+    for (i = 0; i < partType.length; i ++)
+    {
+      partType[i] = types.get(i);
+      partText[i] = texts.get(i);
+      partWords[i] = wordLists.get(i);
+      if (numbers.get(i) != null)
       {
-        scale = 1;                // size is in bytes, no scaling required
+        partLow[i] = numbers.get(i)[0];
+        partHigh[i] = numbers.get(i)[1];
       }
-      else if (prefix == 'k') scale = 1L << 10; // kilobytes
-      else if (prefix == 'm') scale = 1L << 20; // megabytes
-      else if (prefix == 'g') scale = 1L << 30; // gigabytes
-      else if (prefix == 't') scale = 1L << 40; // terabytes
-      else if (prefix == 'p') scale = 1L << 50; // petabytes
-      else if (prefix == 'e') scale = 1L << 60; // exabytes
-      else                        // uknown suffix (poor regular expression)
+      if (partType[i] == PART_TEXT)
+        maxLength += partText[i].length;
+      else if (partType[i] == PART_WORD)
       {
-        number = -1;              // set result to an illegal value
-        scale = 1;                // force scale factor to bytes
+        longest = 0;
+        for (j = 0; j < partWords[i].length; j ++)
+          longest = Math.max(longest, partWords[i][j].length);
+        maxLength += longest;
       }
+      else                        // numbers and times
+        maxLength += 24;          // longest number or timestamp
+    }
+    line = lineBuffer = new byte[maxLength];
+    lineMaximum = maxLength;
+    reset();
+    return(null);
+  }
+
+} // end of CreateDummyFile2Text class
+
+/*
+  CreateDummyFile2Tree class
+
+  Create a tree of directories and files, with the same Runnable object shared
+  by several threads.  Directories are created first, one leaf directory (at
+  the bottom of the tree) at a time, with any missing parents.  Then each
+  thread takes the next file number, and file <n> goes in leaf directory <n>
+  modulo the number of leaves.  File sizes come from a distribution, chosen by
+  the file number and seed, so the same options always give the same tree.
+  Buffers are reused for all files: one shared buffer for a repeating pattern,
+  or one buffer per thread for pseudo-random data.  One data object is shared
+  by all files, so a random selection's lookup table is only built once, and
+  each file of pseudo-random data gets a copy with its own seed.
+*/
+
+class CreateDummyFile2Tree implements Runnable
+{
+  /* constants */
 
-      /* Multiply the two together if the result is within range. */
+  static final long MAX_DIRECTORIES = 10000000;
+                                  // most directories in one tree
 
-      if ((number >= 0) && (number <= (Long.MAX_VALUE / scale)))
-        result = number * scale;
+  /* instance variables */
+
+  long bytesDone;                 // total bytes in all files created
+  long createNanos;               // thread time creating (opening) files
+  CreateDummyFile2Data data;      // data bytes shared by all files
+  int depth;                      // levels of directories below the top
+  boolean directoryPhase;         // true while creating directories
+  String failMessage;             // first error message, or null
+  long failCount;                 // number of files that failed
+  int fanout;                     // directories in each directory
+  long fileCount;                 // number of files to create
+  long filesDone;                 // number of files created
+  long leafCount;                 // directories at the bottom of the tree
+  long nextFile;                  // next file number to create
+  long nextLeaf;                  // next leaf directory to create
+  byte[] patternBuffer;           // shared buffer for patterns, or null
+  long randomSeed;                // base seed for pseudo-random data
+  double[] sizeCumulative;        // cumulative weights for histogram
+  long[] sizeHigh;                // largest size in each histogram bucket
+  long[] sizeLow;                 // smallest size in each histogram bucket
+  long sizeMedian;                // median for log-normal, or zero
+  double sizeSigma;               // standard deviation of log(size)
+  String topName;                 // top directory of the tree
+  long writeNanos;                // thread time writing and closing files
+
+/*
+  constructor
+
+  The caller must check that <fanout> to the power of <depth> is no more than
+  MAX_DIRECTORIES; see the directoryCount() method.
+*/
+  CreateDummyFile2Tree(String topName, int depth, int fanout, long fileCount,
+    byte[] dataBytes, boolean randomFlag, long randomSeed)
+  {
+    int i;                        // index variable
+
+    this.depth = depth;
+    this.fanout = fanout;
+    this.fileCount = fileCount;
+    this.randomSeed = randomSeed;
+    this.topName = topName;
+    bytesDone = createNanos = writeNanos = 0; // nothing done yet
+    directoryPhase = true;        // directories before files
+    failCount = filesDone = nextFile = nextLeaf = 0;
+    failMessage = null;
+    leafCount = 1;
+    for (i = 0; i < depth; i ++)
+      leafCount *= fanout;
+    sizeMedian = 0;               // fixed size until setSizes() is called
+    sizeCumulative = new double[] {1.0};
+    sizeHigh = sizeLow = new long[] {0};
+
+    data = new CreateDummyFile2Data(dataBytes, randomFlag, randomSeed);
+    if (data.randomFlag)          // each thread has its own buffer
+      patternBuffer = null;
+    else                          // all files share one pattern buffer
+    {
+      patternBuffer = new byte[CreateDummyFile2.BUFFER_SIZE
+        + data.dataLength];
+      data.fillPattern(patternBuffer, patternBuffer.length);
     }
+  }
 
-    return(result);               // return our result (the file size)
+/*
+  createFile() method
 
-  } // end of parseFileSize() method
+  Create one file with a given name, size, and file number, and add the time
+  spent creating and writing to <nanos>, which has one element for each.
+  <buffer> is our thread's buffer for pseudo-random data.  Return the number of
+  bytes written.
+*/
+  long createFile(String fileName, long fileSize, long number, byte[] buffer,
+    long[] nanos)
+    throws IOException
+  {
+    long bytesWritten;            // number of bytes written so far
+    long createStart;             // starting time in nanoseconds
+    CreateDummyFile2Data fileData; // data bytes with this file's seed
+    int k;                        // starting offset in buffer
+    FileOutputStream out;         // byte output stream for writing file
+    int thisSize;                 // number of bytes from current buffer
+    long writeStart;              // starting time in nanoseconds
 
+    if (patternBuffer != null)    // shared pattern
+    {
+      buffer = patternBuffer;
+      fileData = data;
+    }
+    else                          // mix file number into seed for each file
+    {
+      fileData = new CreateDummyFile2Data(data, CreateDummyFile2Data.mixBits(
+        randomSeed ^ (number * CreateDummyFile2Data.GOLDEN_GAMMA)));
+    }
+
+    createStart = System.nanoTime();
+    out = new FileOutputStream(fileName); // metadata: create directory entry
+    writeStart = System.nanoTime();
+    bytesWritten = 0;
+    k = 0;
+    while (bytesWritten < fileSize)
+    {
+      thisSize = (int) Math.min((fileSize - bytesWritten),
+        CreateDummyFile2.BUFFER_SIZE);
+      if (fileData.randomFlag)    // random bytes or random selection?
+        fileData.fillRandom(buffer, 0, thisSize, bytesWritten);
+      else                        // adjust offset to maintain pattern
+        k = (int) (bytesWritten % data.dataLength);
+      out.write(buffer, k, thisSize);
+      bytesWritten += thisSize;
+    }
+    if (CreateDummyFile2.syncFlag) // force data to disk before closing
+      CreateDummyFile2.syncFile(out.getChannel(), null);
+    out.close();
+    nanos[0] += writeStart - createStart;
+    nanos[1] += System.nanoTime() - writeStart; // includes time to close
+    return(bytesWritten);
+  }
 
 /*
-  parseHexBytes() method
+  directoryCount() method
 
-  Convert hexadecimal characters representing data bytes to real binary bytes.
-  Accept almost any US-ASCII punctuation as a separator.  Return <null> if the
-  input has errors.
+  Return the number of directories in a tree with a given depth and fan-out,
+  including the top directory, or -1 if there would be more than
+  MAX_DIRECTORIES.
 */
-  static byte[] parseHexBytes(String input)
+  static long directoryCount(int depth, int fanout)
   {
-    char ch;                      // one character from input string
-    int digitCount;               // number of digits found in current byte
     int i;                        // index variable
-    int inputLength;              // number of characters in <input>
-    byte[] result;                // cleaned up result with correct length
-    byte[] tempBytes;             // encoded (binary) data bytes
-    int tempCount;                // number of data bytes in <tempBytes>
-    int value;                    // one binary data byte as an integer
+    long level;                   // directories on current level
+    long total;                   // directories on all levels so far
 
-    digitCount = 0;               // no digits found in current byte
-    inputLength = input.length(); // number of hex digits or spaces, etc
-    tempBytes = new byte[inputLength]; // always more than what we need
-    tempCount = 0;                // no binary data bytes found
-    value = 0;                    // no initial value for this data byte
-    for (i = 0; i < inputLength; i ++)
+    level = total = 1;            // top directory
+    for (i = 0; i < depth; i ++)
     {
-      ch = input.charAt(i);       // get one hex digit, punctuation, other
-      if ((ch >= '0') && (ch <= '9')) // decimal digit?
+      level *= fanout;
+      total += level;
+      if (total > MAX_DIRECTORIES) // also prevents overflow
+        return(-1);
+    }
+    return(total);
+  }
+
+/*
+  fileSize() method
+
+  Return the size of file number <n>, from the size distribution.  The random
+  numbers come from the seed and file number, not from the order in which
+  threads create files.
+*/
+  long fileSize(long n)
+  {
+    int i;                        // index into histogram buckets
+    double u, v;                  // uniform random numbers from 0 to 1
+
+    u = randomDouble(n << 1);
+    v = randomDouble((n << 1) + 1);
+    if (sizeMedian > 0)           // log-normal: normal from Box-Muller
+    {
+      return((long) Math.min(Math.rint(sizeMedian * Math.exp(sizeSigma
+        * Math.sqrt(-2.0 * Math.log(1.0 - u)) * Math.cos(2.0 * Math.PI * v))),
+        (double) (Long.MAX_VALUE >> 1)));
+    }
+    i = 0;                        // find histogram bucket for <u>
+    while ((i < (sizeCumulative.length - 1)) && (u >= sizeCumulative[i]))
+      i ++;
+    return(sizeLow[i] + (long) (v * (sizeHigh[i] - sizeLow[i] + 1)));
+  }
+
+/*
+  leafName() method
+
+  Return the path name for a leaf directory, given its number from zero to
+  <leafCount> minus one.  Directory names are "d" and a number from zero to
+  <fanout> minus one, with the most significant digit at the top.
+*/
+  String leafName(long leaf)
+  {
+    StringBuilder buffer;         // faster than String for appending
+    long divisor;                 // place value for current level
+    int i;                        // index variable
+
+    buffer = new StringBuilder(topName);
+    divisor = leafCount;
+    for (i = 0; i < depth; i ++)
+    {
+      divisor /= fanout;
+      buffer.append(File.separatorChar);
+      buffer.append('d');
+      buffer.append((leaf / divisor) % fanout);
+    }
+    return(buffer.toString());
+  }
+
+/*
+  parseRange() method
+
+  Parse one size, or two sizes separated by a hyphen (-), with the same syntax
+  as the file size.  Return an array with the smallest and largest size, or
+  null if the syntax is not correct.
+*/
+  static long[] parseRange(String text)
+  {
+    long high, low;               // largest and smallest sizes
+    int i;                        // index of hyphen, if any
+
+    i = text.indexOf('-');
+    if (i < 0)                    // one size
+      high = low = CreateDummyFile2.parseFileSize(text);
+    else                          // range of sizes
+    {
+      low = CreateDummyFile2.parseFileSize(text.substring(0, i));
+      high = CreateDummyFile2.parseFileSize(text.substring(i + 1));
+    }
+    if ((low < 0) || (high < low))
+      return(null);
+    return(new long[] {low, high});
+  }
+
+/*
+  randomDouble() method
+
+  Return a pseudo-random number from 0 (inclusive) to 1 (exclusive) with a
+  given index, for our seed.  These are separate from the data in each file.
+*/
+  double randomDouble(long index)
+  {
+    return((CreateDummyFile2Data.mixBits(CreateDummyFile2Data.mixBits(
+      randomSeed) - ((index + 1) * CreateDummyFile2Data.GOLDEN_GAMMA)) >>> 11)
+      * 0x1.0p-53);               // top 53 bits, exact as a double
+  }
+
+/*
+  run() method
+
+  Create leaf directories until there are no more, or create files until
+  there are no more, depending on <directoryPhase>.  Only the first error is
+  shown, because one problem usually affects every file.
+*/
+  public void run()
+  {
+    byte[] buffer;                // our buffer for pseudo-random data
+    long bytesWritten;            // total bytes written by this thread
+    String fileName;              // name of file to be created
+    long leaf;                    // number of leaf directory
+    long[] nanos;                 // time creating files, time writing
+    long number;                  // number of file to be created
+    long written;                 // number of files written by this thread
+
+    if (directoryPhase)           // create directories first
+    {
+      while (true)
       {
-        value = (value << 4) + (ch - '0'); // shift old left, add new digit
-        digitCount ++;            // at least one digit found
+        synchronized (this) { leaf = nextLeaf ++; }
+        if (leaf >= leafCount)    // no more directories
+          return;
+        try { Files.createDirectories(Paths.get(leafName(leaf))); }
+        catch (IOException ioe)
+        {
+          synchronized (this)
+          {
+            if (failMessage == null) // first error is the interesting one
+              failMessage = "Can't create directory: " + ioe.getMessage();
+          }
+          return;
+        }
       }
-      else if ((ch >= 'A') && (ch <= 'F')) // uppercase hex digit?
+    }
+
+    buffer = (patternBuffer == null) ? new byte[CreateDummyFile2.BUFFER_SIZE]
+      : null;
+    bytesWritten = written = 0;
+    nanos = new long[2];          // totals kept locally, added at the end
+    while (true)
+    {
+      synchronized (this) { number = nextFile ++; }
+      if (number >= fileCount)    // no more files
+        break;
+      fileName = leafName(number % leafCount) + File.separatorChar + "f"
+        + number;
+      try
       {
-        value = (value << 4) + (ch - 'A' + 10);
-        digitCount ++;
+        bytesWritten += createFile(fileName, fileSize(number), number, buffer,
+          nanos);
+        written ++;
       }
-      else if ((ch >= 'a') && (ch <= 'f')) // lowercase hex digit?
+      catch (IOException ioe)
       {
-        value = (value << 4) + (ch - 'a' + 10);
-        digitCount ++;
+        synchronized (this)
+        {
+          if (failCount ++ == 0)  // show first error only
+            System.err.println("Error while writing file: "
+              + ioe.getMessage());
+        }
       }
-      else if (((ch >= 0x00) && (ch <= 0x2F)) // ASCII Unicode punctuation
-        || ((ch >= 0x3A) && (ch <= 0x40))
-        || ((ch >= 0x5B) && (ch <= 0x60))
-        || ((ch >= 0x7B) && (ch <= 0x7F))) // safe up to 0xBF
+    }
+    synchronized (this)           // totals are shared by all threads
+    {
+      bytesDone += bytesWritten;
+      createNanos += nanos[0];
+      filesDone += written;
+      writeNanos += nanos[1];
+    }
+  }
+
+/*
+  setSizes() method
+
+  Set the size distribution for files.  Return an error message, or null if
+  the text is correct.  The syntax is one size, such as "4k" for every file; a
+  range such as "1k-64k" for sizes chosen uniformly; a median and a standard
+  deviation such as "16k~1.5" for a log-normal distribution; or an at sign (@)
+  and the name of a histogram file.  Each line in a histogram file is a size
+  or range, and a weight (default 1), such as "4k-8k 30".  Blank lines and
+  lines starting with "#" are ignored.  Sizes have the same syntax as the file
+  size on the command line.
+*/
+  String setSizes(String text)
+  {
+    int i;                        // index variable
+    String line;                  // one line from histogram file
+    int lineNumber;               // line number in histogram file
+    long[] range;                 // smallest and largest size
+    ArrayList<long[]> ranges;     // sizes from histogram file
+    BufferedReader reader;        // histogram file
+    double total;                 // total weight of all buckets
+    ArrayList<Double> weights;    // weights from histogram file
+    String[] words;               // size and weight from one line
+
+    if (text.startsWith("@"))     // histogram file
+    {
+      ranges = new ArrayList<long[]>();
+      weights = new ArrayList<Double>();
+      lineNumber = 0;
+      try
       {
-        if (digitCount > 0) digitCount = 2; // accept a single digit
+        reader = new BufferedReader(new FileReader(text.substring(1)));
+        while ((line = reader.readLine()) != null)
+        {
+          lineNumber ++;
+          line = line.trim();
+          if ((line.length() == 0) || line.startsWith("#"))
+            continue;             // blank line or comment
+          words = line.split("\\s+");
+          ranges.add(parseRange(words[0]));
+          weights.add((words.length > 1) ? CreateDummyFile2.parseRatio(
+            words[1]) : 1.0);
+          if ((words.length > 2) || (ranges.get(ranges.size() - 1) == null)
+            || (weights.get(weights.size() - 1) < 0.0))
+          {
+            reader.close();
+            return("Bad size or weight on line " + lineNumber + ": " + line);
+          }
+        }
+        reader.close();
       }
-      else                        // draw the line at obviously bad input
-        return(null);             // don't bother doing anything more
+      catch (IOException ioe)
+      {
+        return("Can't read histogram file: " + ioe.getMessage());
+      }
+      total = 0.0;
+      for (i = 0; i < weights.size(); i ++)
+        total += weights.get(i);
+      if (total <= 0.0)
+        return("Histogram file has no sizes with a weight: " + text);
+      sizeCumulative = new double[ranges.size()];
+      sizeHigh = new long[ranges.size()];
+      sizeLow = new long[ranges.size()];
+      for (i = 0; i < ranges.size(); i ++)
+      {
+        sizeCumulative[i] = ((i > 0) ? sizeCumulative[i - 1] : 0.0)
+          + weights.get(i);
+        sizeLow[i] = ranges.get(i)[0];
+        sizeHigh[i] = ranges.get(i)[1];
+      }
+      for (i = 0; i < ranges.size(); i ++)
+        sizeCumulative[i] /= total; // last bucket is 1.0 or close to it
+      sizeMedian = 0;
+      return(null);
+    }
+
+    i = text.indexOf('~');        // log-normal distribution?
+    if (i >= 0)
+    {
+      sizeMedian = CreateDummyFile2.parseFileSize(text.substring(0, i));
+      sizeSigma = CreateDummyFile2.parseRatio(text.substring(i + 1));
+      if ((sizeMedian <= 0) || (sizeSigma < 0.0) || (sizeSigma > 10.0))
+        return("Log-normal sizes need a median and a deviation from 0 to 10: "
+          + text);
+      return(null);
+    }
+
+    range = parseRange(text);     // one size or a range
+    if (range == null)
+      return("File size must be a number of bytes, or a range: " + text);
+    sizeHigh = new long[] {range[1]};
+    sizeLow = new long[] {range[0]};
+    sizeCumulative = new double[] {1.0};
+    sizeMedian = 0;
+    return(null);
+  }
+
+} // end of CreateDummyFile2Tree class
+
+/*
+  CreateDummyFile2Verify class
+
+  One thread reading a region of an existing file with positional reads, and
+  comparing against the bytes we would write.  The same as the region writer,
+  except backwards.  Buffers are allocated once per thread, not per block, so
+  there is no limit on the file size.
+*/
+
+class CreateDummyFile2Verify extends Thread
+{
+  /* instance variables */
 
-      if (digitCount >= 2)        // new binary byte every two digits
+  long bytesDone;                 // number of bytes checked in this region
+  FileChannel channel;            // shared input channel
+  CreateDummyFile2Data data;      // data bytes that should be there
+  long endOffset;                 // file offset after end of this region
+  IOException error;              // I/O error that stopped us, or null
+  long firstOffset;               // file offset of first difference, or -1
+  long mismatchCount;             // number of bytes that are different
+  byte[] patternBuffer;           // constant pattern buffer, or null
+  long startOffset;               // file offset for start of this region
+
+/*
+  constructor
+*/
+  CreateDummyFile2Verify(FileChannel channel, long startOffset,
+    long endOffset, CreateDummyFile2Data data, byte[] patternBuffer)
+  {
+    this.channel = channel;
+    this.data = data;
+    this.endOffset = endOffset;
+    this.patternBuffer = patternBuffer;
+    this.startOffset = startOffset;
+    bytesDone = mismatchCount = 0; // nothing checked so far
+    error = null;                 // no errors found so far
+    firstOffset = -1;             // no differences found so far
+    setName("CreateDummyFile2Verify-" + startOffset);
+  }
+
+/*
+  run() method
+
+  Read and check our region in order, from start to end, or until an I/O
+  error.  Arrays.mismatch() is much faster than comparing one byte at a time.
+*/
+  public void run()
+  {
+    byte[] actual;                // bytes read from the file
+    int count;                    // number of bytes from one read
+    byte[] expected;              // bytes we would write
+    int i, j;                     // index variables
+    int k;                        // starting offset in <expected>
+    long position;                // current file position for reading
+    int thisSize;                 // number of bytes in current buffer
+    ByteBuffer wrapper;           // NIO wrapper around <actual>
+
+    actual = new byte[CreateDummyFile2.BUFFER_SIZE];
+    if (patternBuffer == null)    // are we checking pseudo-random data?
+      expected = new byte[CreateDummyFile2.BUFFER_SIZE]; // refill each time
+    else                          // no, shared buffer with constant data
+      expected = patternBuffer;
+    wrapper = ByteBuffer.wrap(actual); // one wrapper, reused for each read
+
+    k = 0;                        // starting offset in <expected>
+    position = startOffset;       // start at beginning of our region
+    try
+    {
+      while (position < endOffset) // go until end of region or I/O error
       {
-        tempBytes[tempCount ++] = (byte) value; // save one data byte
-        digitCount = value = 0;   // no partial data for next digit
+        thisSize = (int) Math.min((endOffset - position),
+          CreateDummyFile2.BUFFER_SIZE);
+        wrapper.clear();          // reset position and limit
+        wrapper.limit(thisSize);
+        while (wrapper.hasRemaining()) // channels may read partial buffers
+        {
+          count = channel.read(wrapper, (position + wrapper.position()));
+          if (count < 0)          // file may be shrinking while we read
+            throw new EOFException("end of file at offset "
+              + (position + wrapper.position()));
+        }
+
+        if (patternBuffer == null) // random bytes or random selection?
+          data.fillRandom(expected, 0, thisSize, position);
+        else                      // adjust offset to maintain pattern
+          k = (int) (position % data.dataLength);
+
+        i = 0;                    // start comparing at beginning of buffer
+        while ((i < thisSize) && ((j = Arrays.mismatch(actual, i, thisSize,
+          expected, (k + i), (k + thisSize))) >= 0))
+        {
+          if (firstOffset < 0)    // remember only the first difference
+            firstOffset = position + i + j;
+          mismatchCount ++;
+          i += j + 1;             // continue after this difference
+        }
+        position += thisSize;
       }
     }
-    if (digitCount > 0)           // could be a trailing single digit
+    catch (IOException ioe)
     {
-      tempBytes[tempCount ++] = (byte) value;
+      error = ioe;                // save error for main thread to report
     }
+    bytesDone = position - startOffset;
+  }
 
-    result = new byte[tempCount]; // truncate array to correct length
-    for (i = 0; i < tempCount; i ++)
-      result[i] = tempBytes[i];
-    return(result);               // give caller correct byte array
+} // end of CreateDummyFile2Verify class
 
-  } // end of parseHexBytes() method
+/*
+  CreateDummyFile2Worker class
+
+  One worker thread filling buffers with pseudo-random data.  The data depends
+  only on the seed and the file offset, so workers never wait on each other.
+  Worker threads are daemons so that System.exit() isn't blocked by a worker
+  waiting for an empty buffer, after an I/O error on the output file.
+*/
+
+class CreateDummyFile2Worker extends Thread
+{
+  /* instance variables */
 
+  long blockCount;                // total number of blocks in the file
+  CreateDummyFile2Data data;      // data bytes to be written
+  java.util.concurrent.BlockingQueue<byte[]> emptyQueue; // buffers to fill
+  long firstBlock;                // first block number for this worker
+  java.util.concurrent.BlockingQueue<byte[]> fullQueue; // buffers to write
+  int stride;                     // increment between our block numbers
 
 /*
-  showHelp() method
+  constructor
+*/
+  CreateDummyFile2Worker(CreateDummyFile2Data data, long firstBlock,
+    int stride, long blockCount, int bufferCount)
+  {
+    int i;                        // index variable
 
-  Show the help summary.  This is a UNIX standard and is expected for all
-  console applications, even very simple ones.
+    this.data = data;
+    this.blockCount = blockCount;
+    this.firstBlock = firstBlock;
+    this.stride = stride;
+    emptyQueue = new java.util.concurrent.ArrayBlockingQueue<byte[]>(
+      bufferCount);
+    fullQueue = new java.util.concurrent.ArrayBlockingQueue<byte[]>(
+      bufferCount);
+    for (i = 0; i < bufferCount; i ++)
+      emptyQueue.add(new byte[CreateDummyFile2.BUFFER_SIZE]);
+    setDaemon(true);              // don't prevent Java from exiting
+    setName("CreateDummyFile2Worker-" + firstBlock);
+  }
+
+/*
+  run() method
+
+  Fill our blocks in order, waiting for the writer to give back buffers.
 */
-  static void showHelp()
+  public void run()
   {
-    System.err.println();
-    System.err.println(PROGRAM_TITLE);
-    System.err.println();
-    System.err.println("This is a Java console application to create a file with a given size, and to");
-    System.err.println("fill the file with a repeating pattern or pseudo-random data.");
-    System.err.println();
-    System.err.println("  java  CreateDummyFile2  [options]  fileSize  fileName");
-    System.err.println();
-    System.err.println("Two parameters are required on the command line.  The first parameter must be");
-    System.err.println("the size of the file in bytes, as a decimal number, without commas or digit");
-    System.err.println("grouping.  Suffixes are recognized for kilobytes, megabytes, etc.  The second");
-    System.err.println("parameter is the output file name.  You may need to quote the name.  Options");
-    System.err.println("select which data values to write for the bytes:");
-    System.err.println();
-    System.err.println("  -d# = one or more decimal bytes from 000 to 255");
-    System.err.println("  -h# = one or more hexadecimal bytes from 00 to FF");
-    System.err.println("  -o = write all ones, 0xFF bytes");
-    System.err.println("  -p# = text pattern to repeat, in local character set");
-    System.err.println("  -r = write pseudo-random data (default)");
-    System.err.println("  -z = write all zeros, 0x00 bytes");
-    System.err.println();
-    System.err.println(COPYRIGHT_NOTICE);
-//  System.err.println();
+    byte[] buffer;                // one buffer being filled
+    long block;                   // current block number
 
-  } // end of showHelp() method
+    try
+    {
+      for (block = firstBlock; block < blockCount; block += stride)
+      {
+        buffer = emptyQueue.take(); // wait for an empty buffer
+        data.fillRandom(buffer, 0, buffer.length,
+          (block * CreateDummyFile2.BUFFER_SIZE));
+        fullQueue.put(buffer);    // give filled buffer to writer
+      }
+    }
+    catch (InterruptedException ie) { /* stop quietly */ }
+  }
 
-} // end of CreateDummyFile2 class
+} // end of CreateDummyFile2Worker class
 
 /* Copyright (c) 2024 by Keith Fenske.  Apache License or GNU GPL. */
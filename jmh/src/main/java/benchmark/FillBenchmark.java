@@ -0,0 +1,117 @@
+/*
+  Fill benchmarks for CreateDummyFile2
+
+  Measure how fast each way of filling a buffer runs, without any file I/O, for
+  buffer sizes around the program's BUFFER_SIZE (256 KB).  The old methods from
+  version 1 (java.util.Random) are here for comparison with the counter-based
+  generator and lookup table now used by CreateDummyFile2Data.
+
+  Results are in operations (buffers) per second.  Multiply by the buffer size
+  to get bytes per second.
+*/
+
+package benchmark;
+
+import java.util.*;
+import java.util.concurrent.*;
+import org.openjdk.jmh.annotations.*;
+
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Measurement(iterations = 5, time = 2)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+public class FillBenchmark
+{
+  /* constants */
+
+  static final byte[] PATTERN = "0123456789".getBytes();
+                                  // like -p0123456789
+  static final byte[] SELECTION = {0x30, 0x30, 0x31};
+                                  // like -r303031
+
+  /* parameters and state */
+
+  @Param({"65536", "262144", "1048576"})
+  int bufferSize;                 // bytes filled per operation
+
+  byte[] buffer;                  // buffer to be filled
+  long offset;                    // file offset for next buffer
+  Object patternData;             // program's data for PATTERN
+  Random random;                  // old generator from version 1
+  Object randomData;              // program's data for random bytes
+  Object selectionData;           // program's data for SELECTION
+
+  @Setup
+  public void setup() throws Throwable
+  {
+    buffer = new byte[bufferSize + PATTERN.length];
+    offset = 0;
+    patternData = (Object) Program.NEW_DATA.invokeExact(PATTERN, false, 1L);
+    random = new Random(1);
+    randomData = (Object) Program.NEW_DATA.invokeExact((byte[]) null, true,
+      1L);
+    selectionData = (Object) Program.NEW_DATA.invokeExact(SELECTION, true,
+      1L);
+  }
+
+/*
+  Fill with a repeating pattern, done once per file by the program.
+*/
+  @Benchmark
+  public byte[] patternCopy() throws Throwable
+  {
+    Program.FILL_PATTERN.invokeExact(patternData, buffer,
+      (bufferSize + PATTERN.length));
+    return(buffer);
+  }
+
+/*
+  Fill with pseudo-random bytes from java.util.Random (version 1).
+*/
+  @Benchmark
+  public byte[] randomNextBytes()
+  {
+    random.nextBytes(buffer);
+    return(buffer);
+  }
+
+/*
+  Fill with pseudo-random bytes from the program's counter-based generator.
+*/
+  @Benchmark
+  public byte[] randomSplitMix() throws Throwable
+  {
+    Program.FILL_RANDOM.invokeExact(randomData, buffer, 0, bufferSize,
+      offset);
+    offset += bufferSize;
+    return(buffer);
+  }
+
+/*
+  Random selection with one call to Random.nextInt() per byte (version 1).
+*/
+  @Benchmark
+  public byte[] selectionNextInt()
+  {
+    int i;                        // index variable
+
+    for (i = 0; i < bufferSize; i ++)
+      buffer[i] = SELECTION[random.nextInt(SELECTION.length)];
+    return(buffer);
+  }
+
+/*
+  Random selection with the program's lookup table.
+*/
+  @Benchmark
+  public byte[] selectionTable() throws Throwable
+  {
+    Program.FILL_RANDOM.invokeExact(selectionData, buffer, 0, bufferSize,
+      offset);
+    offset += bufferSize;
+    return(buffer);
+  }
+
+} // end of FillBenchmark class
@@ -0,0 +1,96 @@
+/*
+  Program access for CreateDummyFile2 benchmarks
+
+  CreateDummyFile2 is written in the default package, and its methods are not
+  public, so code in a named package (which JMH requires) can't call them
+  directly.  This class finds them once by reflection, and keeps them as method
+  handles in static final fields, where the JIT compiler can inline calls the
+  same as a direct call.
+*/
+
+package benchmark;
+
+import java.lang.invoke.*;
+import java.lang.reflect.*;
+
+final class Program
+{
+  /* constants */
+
+  static final int BUFFER_SIZE;   // program's buffer size in bytes
+  static final MethodHandle FILL_PATTERN; // (data, buffer, length)
+  static final MethodHandle FILL_RANDOM;
+                                  // (data, buffer, start, length, offset)
+  static final MethodHandle NEW_DATA; // (dataBytes, randomFlag, randomSeed)
+  static final MethodHandle WRITE_DIRECT; // (name, size, data, buffer, null)
+  static final MethodHandle WRITE_MAPPED; // (name, size, data, buffer)
+  static final MethodHandle WRITE_STREAM; // (name, size, data, buffer, null)
+
+  static
+  {
+    Constructor<?> constructor;   // data constructor from the program
+    Class<?> data;                // CreateDummyFile2Data class
+    Class<?> main;                // CreateDummyFile2 class
+    Class<?> pipeline;            // CreateDummyFile2Pipeline class
+    Field size;                   // BUFFER_SIZE field
+
+    try
+    {
+      data = Class.forName("CreateDummyFile2Data");
+      main = Class.forName("CreateDummyFile2");
+      pipeline = Class.forName("CreateDummyFile2Pipeline");
+      size = main.getDeclaredField("BUFFER_SIZE");
+      size.setAccessible(true);
+      BUFFER_SIZE = size.getInt(null);
+
+      FILL_PATTERN = method(data, "fillPattern", byte[].class, int.class);
+      FILL_RANDOM = method(data, "fillRandom", byte[].class, int.class,
+        int.class, long.class);
+      constructor = data.getDeclaredConstructor(byte[].class,
+        boolean.class, long.class);
+      constructor.setAccessible(true);
+      NEW_DATA = MethodHandles.lookup().unreflectConstructor(constructor)
+        .asType(MethodType.methodType(Object.class, byte[].class,
+        boolean.class, long.class));
+      WRITE_DIRECT = method(main, "writeDirect", String.class, long.class,
+        data, byte[].class, pipeline);
+      WRITE_MAPPED = method(main, "writeMapped", String.class, long.class,
+        data, byte[].class);
+      WRITE_STREAM = method(main, "writeStream", String.class, long.class,
+        data, byte[].class, pipeline);
+    }
+    catch (ReflectiveOperationException roe)
+    {
+      throw new ExceptionInInitializerError(roe);
+    }
+  }
+
+  private Program() { }           // no instances
+
+/*
+  method() method
+
+  Find one method, and return a handle where class parameters from the program
+  are generalized to Object, so that callers don't need to name those classes.
+*/
+  static MethodHandle method(Class<?> owner, String name,
+    Class<?>... parameters) throws ReflectiveOperationException
+  {
+    MethodHandle handle;          // handle with the program's types
+    int i;                        // index variable
+    Method method;                // method found by reflection
+    MethodType type;              // generalized parameter types
+
+    method = owner.getDeclaredMethod(name, parameters);
+    method.setAccessible(true);
+    handle = MethodHandles.lookup().unreflect(method);
+    type = handle.type();
+    for (i = 0; i < type.parameterCount(); i ++)
+    {
+      if (type.parameterType(i).getName().startsWith("CreateDummyFile2"))
+        type = type.changeParameterType(i, Object.class);
+    }
+    return(handle.asType(type));
+  }
+
+} // end of Program class
@@ -0,0 +1,81 @@
+/*
+  Program benchmarks for CreateDummyFile2
+
+  Measure the program's own output methods from start to finish, including
+  filling buffers with pseudo-random data, at the program's fixed BUFFER_SIZE.
+  These are the numbers to compare when choosing between the default output,
+  -map, and -direct on a given host.  -direct only works on Linux file systems
+  that allow direct I/O; on other systems, that back-end fails with an error.
+
+  Files are written in the directory given by the "jmh.dir" system property,
+  or the system's temporary directory, and are deleted afterwards.  Results are
+  in milliseconds per file.
+*/
+
+package benchmark;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.concurrent.*;
+import org.openjdk.jmh.annotations.*;
+
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3)
+public class ProgramBenchmark
+{
+  /* parameters and state */
+
+  @Param({"stream", "mapped", "direct"})
+  String backend;                 // program's output method
+
+  @Param({"67108864"})
+  long fileSize;                  // bytes per file (default 64 MB)
+
+  byte[] buffer;                  // program's buffer for random data
+  Object data;                    // program's data for random bytes
+  Path directory;                 // temporary directory for test files
+  String fileName;                // test file, written once per operation
+
+  @Setup
+  public void setup() throws Throwable
+  {
+    buffer = new byte[Program.BUFFER_SIZE];
+    data = (Object) Program.NEW_DATA.invokeExact((byte[]) null, true, 1L);
+    directory = Files.createTempDirectory(Paths.get(System.getProperty(
+      "jmh.dir", System.getProperty("java.io.tmpdir"))), "CreateDummyFile2");
+    fileName = directory.resolve("program.dat").toString();
+  }
+
+  @TearDown
+  public void tearDown() throws IOException
+  {
+    Files.deleteIfExists(Paths.get(fileName));
+    Files.deleteIfExists(directory);
+  }
+
+/*
+  Write one file with the selected output method, and return the number of
+  bytes written.
+*/
+  @Benchmark
+  public long write() throws Throwable
+  {
+    switch (backend)
+    {
+      case "direct":
+        return((long) Program.WRITE_DIRECT.invokeExact(fileName, fileSize,
+          data, buffer, (Object) null));
+      case "mapped":
+        return((long) Program.WRITE_MAPPED.invokeExact(fileName, fileSize,
+          data, buffer));
+      default:
+        return((long) Program.WRITE_STREAM.invokeExact(fileName, fileSize,
+          data, buffer, (Object) null));
+    }
+  }
+
+} // end of ProgramBenchmark class
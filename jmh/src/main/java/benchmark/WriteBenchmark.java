@@ -0,0 +1,188 @@
+/*
+  Write benchmarks for CreateDummyFile2
+
+  Measure how fast each way of writing a file runs, for buffer sizes around the
+  program's BUFFER_SIZE (256 KB).  The buffer is filled once, before timing, so
+  that only the output method is measured.  Comments in the program said that
+  BufferedOutputStream was "relatively slow" compared to writing our own large
+  buffers with FileOutputStream; the "buffered" back-end is here to check that,
+  with the same bulk writes as "stream" going through a BufferedOutputStream.
+  The "bytewise" back-end writes one byte at a time through the same stream,
+  which is what BufferedOutputStream is for, and is only a point of reference.
+
+  Files are written in the directory given by the "jmh.dir" system property,
+  or the system's temporary directory, and are deleted afterwards.  Files are
+  not forced to disk, so results include the operating system's file cache.
+  Results are in milliseconds per file.
+*/
+
+package benchmark;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import org.openjdk.jmh.annotations.*;
+
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3)
+public class WriteBenchmark
+{
+  /* parameters and state */
+
+  @Param({"stream", "buffered", "bytewise", "channel", "mapped"})
+  String backend;                 // output method being measured
+
+  @Param({"65536", "262144", "1048576"})
+  int bufferSize;                 // bytes written per call
+
+  @Param({"67108864"})
+  long fileSize;                  // bytes per file (default 64 MB)
+
+  byte[] buffer;                  // random data, filled once
+  Path directory;                 // temporary directory for test files
+  Path file;                      // test file, written once per operation
+
+  @Setup
+  public void setup() throws IOException
+  {
+    buffer = new byte[bufferSize];
+    new Random(1).nextBytes(buffer);
+    directory = Files.createTempDirectory(Paths.get(System.getProperty(
+      "jmh.dir", System.getProperty("java.io.tmpdir"))), "CreateDummyFile2");
+    file = directory.resolve("write.dat");
+  }
+
+  @TearDown
+  public void tearDown() throws IOException
+  {
+    Files.deleteIfExists(file);
+    Files.deleteIfExists(directory);
+  }
+
+/*
+  Write one file with the selected back-end, and return the number of bytes.
+*/
+  @Benchmark
+  public long write() throws IOException
+  {
+    switch (backend)
+    {
+      case "buffered": return(writeBuffered());
+      case "bytewise": return(writeBytewise());
+      case "channel": return(writeChannel());
+      case "mapped": return(writeMapped());
+      default: return(writeStream());
+    }
+  }
+
+/*
+  Each back-end writes the whole file in calls of <bufferSize> bytes, closes
+  the file, and returns the number of bytes written.
+*/
+  long writeBuffered() throws IOException
+  {
+    long done;                    // number of bytes written so far
+    OutputStream out;             // buffered stream for the file
+    int size;                     // number of bytes for this call
+
+    done = 0;
+    out = new BufferedOutputStream(new FileOutputStream(file.toFile()));
+    while (done < fileSize)       // same bulk writes as writeStream()
+    {
+      size = (int) Math.min((fileSize - done), bufferSize);
+      out.write(buffer, 0, size);
+      done += size;
+    }
+    out.close();
+    return(done);
+  }
+
+  long writeBytewise() throws IOException
+  {
+    long done;                    // number of bytes written so far
+    int i;                        // index variable
+    OutputStream out;             // buffered stream for the file
+    int size;                     // number of bytes for this buffer
+
+    done = 0;
+    out = new BufferedOutputStream(new FileOutputStream(file.toFile()));
+    while (done < fileSize)       // one byte at a time, for reference only
+    {
+      size = (int) Math.min((fileSize - done), bufferSize);
+      for (i = 0; i < size; i ++)
+        out.write(buffer[i]);
+      done += size;
+    }
+    out.close();
+    return(done);
+  }
+
+  long writeChannel() throws IOException
+  {
+    FileChannel channel;          // channel for the file
+    long done;                    // number of bytes written so far
+    ByteBuffer wrap;              // NIO wrapper around <buffer>
+
+    channel = FileChannel.open(file, StandardOpenOption.CREATE,
+      StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    done = 0;
+    wrap = ByteBuffer.wrap(buffer);
+    while (done < fileSize)
+    {
+      wrap.clear().limit((int) Math.min((fileSize - done), bufferSize));
+      while (wrap.hasRemaining())
+        done += channel.write(wrap);
+    }
+    channel.close();
+    return(done);
+  }
+
+  long writeMapped() throws IOException
+  {
+    FileChannel channel;          // channel for the file
+    long done;                    // number of bytes written so far
+    MappedByteBuffer map;         // whole file, mapped into memory
+    int size;                     // number of bytes for this call
+
+    channel = FileChannel.open(file, StandardOpenOption.CREATE,
+      StandardOpenOption.READ, StandardOpenOption.TRUNCATE_EXISTING,
+      StandardOpenOption.WRITE);
+    done = 0;
+    map = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+                                  // must be under 2 GB for one window
+    while (done < fileSize)
+    {
+      size = (int) Math.min((fileSize - done), bufferSize);
+      map.put(buffer, 0, size);
+      done += size;
+    }
+    channel.close();
+    return(done);
+  }
+
+  long writeStream() throws IOException
+  {
+    long done;                    // number of bytes written so far
+    FileOutputStream out;         // unbuffered stream for the file
+    int size;                     // number of bytes for this call
+
+    done = 0;
+    out = new FileOutputStream(file.toFile());
+    while (done < fileSize)
+    {
+      size = (int) Math.min((fileSize - done), bufferSize);
+      out.write(buffer, 0, size);
+      done += size;
+    }
+    out.close();
+    return(done);
+  }
+
+} // end of WriteBenchmark class
@@ -0,0 +1,254 @@
+/*
+  Unit tests for CreateDummyFile2
+
+  Check the public library methods: parsing of file sizes and data bytes, and
+  the streams and channels that produce a file's bytes on demand.  Everything
+  that produces bytes is compared with writeTo(OutputStream), which uses the
+  same buffer loop as the program itself.
+
+  These tests are in the default (unnamed) package, like the program, so they
+  can also reach package-private members such as BUFFER_SIZE.
+*/
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.util.*;
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CreateDummyFile2Test
+{
+  /* constants */
+
+  static final int ODD_SIZE = (3 * CreateDummyFile2.BUFFER_SIZE) + 12345;
+                                  // more than one buffer, not a multiple
+  static final byte[] PATTERN = "abcdefg".getBytes();
+                                  // doesn't divide the buffer size
+  static final int SKIP = 100003; // odd offset for first byte compared
+
+/*
+  Return all bytes written by writeTo(OutputStream), as the expected result.
+*/
+  static byte[] expected(CreateDummyFile2 file) throws IOException
+  {
+    ByteArrayOutputStream out;    // collects all bytes written
+
+    out = new ByteArrayOutputStream();
+    assertEquals(file.size(), file.writeTo(out));
+    return(out.toByteArray());
+  }
+
+/*
+  Read everything from a channel, starting after <skip> bytes that are read
+  and discarded.  Reads use odd sizes, so they don't line up with buffers or
+  patterns.  <direct> uses a direct buffer, which has no array.
+*/
+  static byte[] readChannel(ReadableByteChannel channel, int skip,
+    boolean direct)
+    throws IOException
+  {
+    ByteBuffer buffer;            // buffer for each read
+    ByteArrayOutputStream out;    // collects bytes after <skip>
+    int thisSize;                 // number of bytes from one read
+    int total;                    // number of bytes read so far
+
+    buffer = direct ? ByteBuffer.allocateDirect(77777)
+      : ByteBuffer.allocate(77777);
+    out = new ByteArrayOutputStream();
+    total = 0;
+    while (true)
+    {
+      buffer.clear();
+      if (total < skip)           // end the first read at <skip>
+        buffer.limit(Math.min((skip - total), buffer.capacity()));
+      if ((thisSize = channel.read(buffer)) < 0)
+        break;
+      buffer.flip();
+      if (total >= skip)          // keep bytes after <skip>
+      {
+        while (buffer.hasRemaining())
+          out.write(buffer.get());
+      }
+      total += thisSize;
+    }
+    channel.close();
+    return(out.toByteArray());
+  }
+
+/*
+  Read everything from an input stream, after skipping <skip> bytes.
+*/
+  static byte[] readStream(InputStream in, int skip) throws IOException
+  {
+    byte[] buffer;                // buffer for each read
+    ByteArrayOutputStream out;    // collects bytes after <skip>
+    int thisSize;                 // number of bytes from one read
+
+    assertEquals(skip, in.skip(skip));
+    buffer = new byte[54321];
+    out = new ByteArrayOutputStream();
+    while ((thisSize = in.read(buffer)) >= 0)
+      out.write(buffer, 0, thisSize);
+    in.close();
+    return(out.toByteArray());
+  }
+
+/*
+  Check one file's channel and input stream against writeTo(OutputStream),
+  from the start and from an odd offset.
+*/
+  static void checkSources(CreateDummyFile2 file) throws IOException
+  {
+    byte[] all;                   // all bytes, from writeTo()
+    byte[] rest;                  // bytes after SKIP, from writeTo()
+
+    all = expected(file);
+    rest = Arrays.copyOfRange(all, SKIP, all.length);
+    assertArrayEquals(all, readChannel(file.newChannel(), 0, false));
+    assertArrayEquals(rest, readChannel(file.newChannel(), SKIP, false));
+    assertArrayEquals(rest, readChannel(file.newChannel(), SKIP, true));
+    assertArrayEquals(all, readStream(file.newInputStream(), 0));
+    assertArrayEquals(rest, readStream(file.newInputStream(), SKIP));
+  }
+
+/*
+  Sizes with and without suffixes, in any case, all powers of two.
+*/
+  @Test
+  public void parseFileSizeSuffixes()
+  {
+    assertEquals(0, CreateDummyFile2.parseFileSize("0"));
+    assertEquals(123, CreateDummyFile2.parseFileSize("123"));
+    assertEquals(7, CreateDummyFile2.parseFileSize(" 7b "));
+    assertEquals(5, CreateDummyFile2.parseFileSize("5B"));
+    assertEquals(1024, CreateDummyFile2.parseFileSize("1k"));
+    assertEquals(1024, CreateDummyFile2.parseFileSize("1KB"));
+    assertEquals(1024, CreateDummyFile2.parseFileSize("1KiB"));
+    assertEquals((2L << 20), CreateDummyFile2.parseFileSize("2m"));
+    assertEquals((3L << 30), CreateDummyFile2.parseFileSize("3 GB"));
+    assertEquals((4L << 40), CreateDummyFile2.parseFileSize("4tib"));
+    assertEquals((5L << 50), CreateDummyFile2.parseFileSize("5P"));
+    assertEquals((6L << 60), CreateDummyFile2.parseFileSize("6e"));
+    assertEquals(1024, CreateDummyFile2.parseFileSize(new StringBuilder(
+      "1k")));                    // any CharSequence
+  }
+
+/*
+  The largest sizes that fit in a long integer, and the first that don't.
+*/
+  @Test
+  public void parseFileSizeOverflow()
+  {
+    assertEquals(Long.MAX_VALUE, CreateDummyFile2.parseFileSize(
+      "9223372036854775807"));
+    assertEquals(-1, CreateDummyFile2.parseFileSize("9223372036854775808"));
+    assertEquals(-1, CreateDummyFile2.parseFileSize("99999999999999999999"));
+    assertEquals((7L << 60), CreateDummyFile2.parseFileSize("7e"));
+    assertEquals(-1, CreateDummyFile2.parseFileSize("8e"));
+    assertEquals(-1, CreateDummyFile2.parseFileSize("8388608t"));
+  }
+
+/*
+  Poor syntax is rejected, not partly parsed.
+*/
+  @Test
+  public void parseFileSizeRejects()
+  {
+    int i;                        // index variable
+    String[] texts;               // sizes with poor syntax
+
+    texts = new String[] {"", " ", "k", "-1", "+1", "1.5k", "1,000", "1x",
+      "1kk", "1ki", "1kib2", "1bb", "1bib", "1 k b"};
+    for (i = 0; i < texts.length; i ++)
+      assertEquals(-1, CreateDummyFile2.parseFileSize(texts[i]), texts[i]);
+  }
+
+/*
+  Hexadecimal bytes, with and without separators.
+*/
+  @Test
+  public void parseHexBytes()
+  {
+    byte[] output;                // caller's array for bytes
+
+    assertArrayEquals(new byte[] {1, 2, (byte) 0xFF},
+      CreateDummyFile2.parseHexBytes("0102ff"));
+    assertArrayEquals(new byte[] {1, 2, (byte) 0xFF},
+      CreateDummyFile2.parseHexBytes("01,02 FF"));
+    assertArrayEquals(new byte[] {1, 2, 0x30},
+      CreateDummyFile2.parseHexBytes("1-2-30"));
+    assertArrayEquals(new byte[0], CreateDummyFile2.parseHexBytes(""));
+    assertNull(CreateDummyFile2.parseHexBytes("0g"));
+    assertNull(CreateDummyFile2.parseHexBytes("\u00e9"));
+
+    output = new byte[2];
+    assertEquals(2, CreateDummyFile2.parseHexBytes("3031", output));
+    assertArrayEquals(new byte[] {0x30, 0x31}, output);
+    assertEquals(-1, CreateDummyFile2.parseHexBytes("303132", output));
+  }
+
+/*
+  Decimal bytes, with and without separators.
+*/
+  @Test
+  public void parseDecBytes()
+  {
+    byte[] output;                // caller's array for bytes
+
+    assertArrayEquals(new byte[] {0, (byte) 255},
+      CreateDummyFile2.parseDecBytes("000255"));
+    assertArrayEquals(new byte[] {1, 2, 3},
+      CreateDummyFile2.parseDecBytes("1,2,3"));
+    assertArrayEquals(new byte[] {123, 4},
+      CreateDummyFile2.parseDecBytes("1234"));
+    assertArrayEquals(new byte[0], CreateDummyFile2.parseDecBytes(""));
+    assertNull(CreateDummyFile2.parseDecBytes("256"));
+    assertNull(CreateDummyFile2.parseDecBytes("12a"));
+
+    output = new byte[2];
+    assertEquals(2, CreateDummyFile2.parseDecBytes("48 49", output));
+    assertArrayEquals(new byte[] {48, 49}, output);
+    assertEquals(-1, CreateDummyFile2.parseDecBytes("48 49 50", output));
+  }
+
+/*
+  Pseudo-random data from a seed is the same from every source.
+*/
+  @Test
+  public void sourcesRandom() throws IOException
+  {
+    checkSources(new CreateDummyFile2(ODD_SIZE, 12345));
+  }
+
+/*
+  A pattern is in the same phase from every source, at any offset.
+*/
+  @Test
+  public void sourcesPattern() throws IOException
+  {
+    checkSources(new CreateDummyFile2(ODD_SIZE, PATTERN));
+  }
+
+/*
+  A random selection is the same from every source.
+*/
+  @Test
+  public void sourcesSelection() throws IOException
+  {
+    checkSources(new CreateDummyFile2(ODD_SIZE, PATTERN, 12345));
+  }
+
+/*
+  The same seed always gives the same data, and different seeds don't.
+*/
+  @Test
+  public void seeds() throws IOException
+  {
+    assertArrayEquals(expected(new CreateDummyFile2(SKIP, 1)),
+      expected(new CreateDummyFile2(SKIP, 1)));
+    assertFalse(Arrays.equals(expected(new CreateDummyFile2(SKIP, 1)),
+      expected(new CreateDummyFile2(SKIP, 2))));
+  }
+
+} // end of CreateDummyFile2Test class